@@ -2,6 +2,8 @@ plugins {
     java
     id("org.springframework.boot") version "3.4.4"
     id("io.spring.dependency-management") version "1.1.7"
+    id("org.graalvm.buildtools.native") version "0.10.6"
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 group = "org.api"
@@ -18,6 +20,7 @@ repositories {
 }
 
 dependencies {
+    implementation("org.springframework.boot:spring-boot-starter-actuator")
     implementation("org.springframework.boot:spring-boot-starter-data-jpa")
     implementation("org.springframework.boot:spring-boot-starter-security")
     implementation("org.springframework.boot:spring-boot-starter-web")
@@ -34,9 +37,135 @@ dependencies {
     annotationProcessor("org.projectlombok:lombok")
     testImplementation("org.springframework.boot:spring-boot-starter-test")
     testImplementation("org.springframework.security:spring-security-test")
+    testImplementation("org.springframework.boot:spring-boot-testcontainers")
+    testImplementation("org.testcontainers:junit-jupiter")
+    testImplementation("org.testcontainers:postgresql")
     testRuntimeOnly("org.junit.platform:junit-platform-launcher")
 }
 
 tasks.withType<Test> {
     useJUnitPlatform()
 }
+
+jmh {
+    jmhVersion = "1.37"
+    resultFormat = "JSON" // Written to build/results/jmh, to compare runs
+    profilers = listOf("gc") // Bytes allocated per operation, the memory cost of building an index
+}
+
+// processAot evaluates the bean conditions once, at build time, with the build's configuration: in the AOT-processed
+// fast-start jar and in the native image, app.group-commit.enabled, app.outbox.enabled, app.archive.enabled,
+// app.datasource.replicas.enabled, app.reminders.enabled and app.warmup.enabled keep the values they had then,
+// whatever the runtime environment says. Change them in application.properties and rebuild to flip them there.
+// Every other property, such as batch sizes and intervals, is still read at runtime.
+// Profiles are frozen the same way, so the AOT code is generated with the faststart profile both artifacts run with.
+tasks.named<org.springframework.boot.gradle.tasks.aot.ProcessAot>("processAot") {
+    args("--spring.profiles.active=faststart")
+}
+
+graalvmNative {
+    binaries {
+        named("main") {
+            imageName = "doit"
+            buildArgs.add("--enable-monitoring=jfr") // Keeps the on-demand profiling endpoint working in the native image
+        }
+    }
+}
+
+/**
+ * Starts the application with the given command, waits until /actuator/health answers
+ * and logs the time it took and the resident memory of the process.
+ */
+fun measureStartup(label: String, command: List<String>, port: Int) {
+    val started = System.nanoTime()
+    val process = ProcessBuilder(command + "--server.port=$port").inheritIO().start()
+
+    try {
+        val deadline = started + 120_000_000_000L
+        var healthy = false
+
+        while (!healthy && System.nanoTime() < deadline) {
+            healthy = try {
+                val connection = uri("http://localhost:$port/actuator/health").toURL().openConnection() as java.net.HttpURLConnection
+                connection.responseCode == 200
+            } catch (e: java.io.IOException) {
+                false
+            }
+            if (!healthy) {
+                Thread.sleep(20)
+            }
+        }
+        check(healthy) { "$label did not become healthy within 120s" }
+
+        val startupMs = (System.nanoTime() - started) / 1_000_000
+        val rss = file("/proc/${process.pid()}/status").takeIf { it.exists() }
+            ?.readLines()?.firstOrNull { it.startsWith("VmRSS") } ?: "VmRSS: unavailable"
+        logger.lifecycle("$label: healthy after $startupMs ms, $rss")
+    } finally {
+        process.destroy()
+        process.waitFor()
+    }
+}
+
+tasks.register("nativeStartupSmokeTest") {
+    group = "verification"
+    description = "Boots the native image with the faststart profile against the database configured in the environment and reports startup time and RSS."
+    dependsOn("nativeCompile")
+
+    doLast {
+        val binary = layout.buildDirectory.file("native/nativeCompile/doit").get().asFile
+        measureStartup("Native image (faststart profile)", listOf(binary.absolutePath, "--spring.profiles.active=faststart"), 18080)
+    }
+}
+
+val faststartDir = layout.buildDirectory.dir("faststart")
+val cdsArchive = faststartDir.map { it.file("application.jsa") }
+val javaLauncher = javaToolchains.launcherFor { languageVersion = JavaLanguageVersion.of(23) }
+val fastStartJvmArgs = listOf("-Dspring.aot.enabled=true", "-Dspring.profiles.active=faststart")
+
+tasks.register<Exec>("extractBootJar") {
+    group = "build"
+    description = "Extracts the AOT-processed boot jar into a layout suitable for class-data sharing."
+    dependsOn("bootJar")
+
+    doFirst {
+        delete(faststartDir)
+    }
+    commandLine(
+        javaLauncher.get().executablePath.asFile.absolutePath,
+        "-Djarmode=tools", "-jar", tasks.bootJar.get().archiveFile.get().asFile.absolutePath,
+        "extract", "--destination", faststartDir.get().asFile.absolutePath
+    )
+}
+
+tasks.register<Exec>("cdsTrainingRun") {
+    group = "build"
+    description = "Starts the extracted jar until the context is refreshed and dumps the loaded classes into a CDS archive."
+    dependsOn("extractBootJar")
+
+    commandLine(
+        listOf(javaLauncher.get().executablePath.asFile.absolutePath, "-XX:ArchiveClassesAtExit=${cdsArchive.get().asFile.absolutePath}")
+            + fastStartJvmArgs
+            + listOf("-Dspring.context.exit=onRefresh", "-jar", faststartDir.get().file(tasks.bootJar.get().archiveFileName.get()).asFile.absolutePath)
+    )
+}
+
+tasks.register("startupBenchmark") {
+    group = "verification"
+    description = "Compares time-to-healthy and RSS of the boot jar run as is, default profile without AOT or CDS, against the same jar " +
+        "extracted and run with the faststart profile, AOT code and the CDS archive. The toggles keep their application.properties values in both."
+    dependsOn("bootJar", "cdsTrainingRun")
+
+    doLast {
+        val java = javaLauncher.get().executablePath.asFile.absolutePath
+
+        measureStartup("Plain JVM (default profile, no AOT, no CDS)", listOf(java, "-jar", tasks.bootJar.get().archiveFile.get().asFile.absolutePath), 18081)
+        measureStartup(
+            "Fast-start JVM (faststart profile, AOT, CDS)",
+            listOf(java, "-XX:SharedArchiveFile=${cdsArchive.get().asFile.absolutePath}")
+                + fastStartJvmArgs
+                + listOf("-jar", faststartDir.get().file(tasks.bootJar.get().archiveFileName.get()).asFile.absolutePath),
+            18082
+        )
+    }
+}
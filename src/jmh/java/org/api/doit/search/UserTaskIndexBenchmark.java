@@ -0,0 +1,84 @@
+package org.api.doit.search;
+
+import org.api.doit.dto.TaskResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Build time and search latency of a user's search index, for typical and heavy users.
+ * Memory is reported by the gc profiler configured in the build: gc.alloc.rate.norm of buildIndex
+ * is the bytes allocated to build one index, an upper bound of what it retains.
+ * Run with ./gradlew jmh.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserTaskIndexBenchmark {
+    private static final String[] WORDS = {
+            "buy", "milk", "call", "plumber", "report", "quarterly", "review", "groceries", "meeting", "dentist",
+            "invoice", "send", "project", "deadline", "gym", "book", "flight", "renew", "passport", "garden"
+    };
+
+    @Param({"100", "10000"})
+    private int tasks;
+
+    private List<TaskResponse> documents;
+    private UserTaskIndex index;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        documents = new ArrayList<>(tasks);
+        for (int i = 0; i < tasks; i++) {
+            documents.add(new TaskResponse(UUID.randomUUID(), sentence(random, 4) + " " + i, sentence(random, 12), false,
+                    LocalDateTime.now(), null, null, null, List.of(), 0));
+        }
+        index = new UserTaskIndex(documents);
+    }
+
+    @Benchmark
+    public UserTaskIndex buildIndex() {
+        return new UserTaskIndex(documents);
+    }
+
+    @Benchmark
+    public List<TaskResponse> searchOnePrefix() {
+        return index.search(Set.of("rep"), 50);
+    }
+
+    @Benchmark
+    public List<TaskResponse> searchTwoTerms() {
+        return index.search(Set.of("call", "plumber"), 50);
+    }
+
+    private static String sentence(Random random, int words) {
+        StringBuilder sentence = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                sentence.append(' ');
+            }
+            sentence.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return sentence.toString();
+    }
+}
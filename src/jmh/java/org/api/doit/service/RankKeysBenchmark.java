@@ -0,0 +1,75 @@
+package org.api.doit.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of generating rank keys: appends, inserts between random neighbours of a rebalanced list,
+ * and the worst case of inserting at the same spot over and over, where keys grow the fastest.
+ * Run with ./gradlew jmh.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RankKeysBenchmark {
+    private static final int TASKS = 10_000;
+    private static final int MAX_KEY_LENGTH = 24; // Default of app.ordering.max-key-length, past which the list is rebalanced
+
+    private List<String> keys;
+    private Random random;
+    private String last;
+    private String lower;
+    private String upper;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        keys = RankKeys.evenlySpaced(TASKS);
+        random = new Random(42);
+        last = keys.getLast();
+        lower = keys.get(TASKS / 2);
+        upper = keys.get(TASKS / 2 + 1);
+    }
+
+    @Benchmark
+    public String append() {
+        last = RankKeys.after(last);
+        return last;
+    }
+
+    @Benchmark
+    public String insertBetweenRandomNeighbours() {
+        int at = random.nextInt(TASKS - 1);
+        return RankKeys.between(keys.get(at), keys.get(at + 1));
+    }
+
+    @Benchmark
+    public String insertAtTheSameSpot() {
+        // Each key becomes the next upper bound, as when tasks keep being dropped right below the same one
+        upper = RankKeys.between(lower, upper);
+        if (upper.length() > MAX_KEY_LENGTH) {
+            upper = keys.get(TASKS / 2 + 1);
+        }
+        return upper;
+    }
+
+    @Benchmark
+    public List<String> rebalance() {
+        return RankKeys.evenlySpaced(TASKS);
+    }
+}
@@ -1,10 +1,25 @@
 package org.api.doit;
 
 import io.github.cdimascio.dotenv.Dotenv;
+import org.api.doit.aot.NativeRuntimeHints;
+import org.api.doit.dto.*;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
+@ImportRuntimeHints(NativeRuntimeHints.class)
+@RegisterReflectionForBinding({ // Controllers return ResponseEntity<?>, so AOT cannot see the DTOs Jackson binds
+        AuthResponse.class, LoginRequest.class, RegisterRequest.class, CreateTaskRequest.class,
+        TaskResponse.class, TaskChangesResponse.class, TaskSummaryResponse.class, TaskEventResponse.class,
+        BatchRequest.class, BatchOperationRequest.class, BatchResponse.class, BatchOperationResult.class,
+        RevokeTokenRequest.class, MoveTaskRequest.class, TaskReminderResponse.class, TaskLabelsRequest.class,
+        TaskFilterRequest.class, TaskPageResponse.class, RecordingResponse.class,
+        SlowRequestResponse.class, SlowStatementResponse.class, TaskCompletedRequest.class
+})
 public class SpringDoItApiApplication {
 
     public static void main(String[] args) {
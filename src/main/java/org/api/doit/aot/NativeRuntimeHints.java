@@ -0,0 +1,95 @@
+package org.api.doit.aot;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.api.doit.entity.ArchivedTask;
+import org.api.doit.entity.Label;
+import org.api.doit.entity.OutboxEvent;
+import org.api.doit.entity.SchedulerLease;
+import org.api.doit.entity.Task;
+import org.api.doit.entity.TaskTombstone;
+import org.api.doit.entity.User;
+import org.api.doit.entity.UserTaskStats;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.boot.context.properties.bind.BindableRuntimeHintsRegistrar;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+
+/**
+ * Reflection and resource hints for the native image that Spring AOT cannot infer on its own.
+ * JJWT instantiates its implementation classes by name and finds its Jackson serializer
+ * through the ServiceLoader, Hibernate reads and writes entity fields reflectively,
+ * java-dotenv reads an optional .env resource, SqlLoggingDataSource wraps JDBC objects in JDK proxies,
+ * and ReplicaDataSourceConfig binds the spring.datasource.hikari.* settings onto the pools it builds.
+ */
+public class NativeRuntimeHints implements RuntimeHintsRegistrar {
+
+    // jjwt-impl and jjwt-jackson are runtime-only dependencies, so they are referenced by name
+    private static final String[] JJWT_REFLECTIVE_TYPES = {
+            "io.jsonwebtoken.impl.DefaultJwtBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+            "io.jsonwebtoken.impl.DefaultClaimsBuilder",
+            "io.jsonwebtoken.impl.io.StandardCompressionAlgorithms",
+            "io.jsonwebtoken.impl.security.KeysBridge",
+            "io.jsonwebtoken.impl.security.StandardSecureDigestAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardKeyAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardEncryptionAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardKeyOperations",
+            "io.jsonwebtoken.impl.security.StandardHashAlgorithms",
+            "io.jsonwebtoken.impl.security.DefaultDynamicJwkBuilder",
+            "io.jsonwebtoken.impl.security.DefaultJwkParserBuilder",
+            "io.jsonwebtoken.impl.security.DefaultJwkSetBuilder",
+            "io.jsonwebtoken.impl.security.DefaultJwkSetParserBuilder",
+            "io.jsonwebtoken.impl.security.DefaultKeyOperationBuilder",
+            "io.jsonwebtoken.impl.security.DefaultKeyOperationPolicyBuilder",
+            "io.jsonwebtoken.jackson.io.JacksonSerializer",
+            "io.jsonwebtoken.jackson.io.JacksonDeserializer"
+    };
+
+    // The interfaces SqlLoggingDataSource proxies, one proxy per interface
+    private static final Class<?>[] JDBC_PROXIED_TYPES = {
+            Connection.class, Statement.class, PreparedStatement.class, CallableStatement.class
+    };
+
+    private static final Class<?>[] ENTITY_TYPES = {
+            Task.class, User.class, TaskTombstone.class, UserTaskStats.class, ArchivedTask.class, SchedulerLease.class, Label.class, OutboxEvent.class
+    };
+
+    /**
+     * Registers the hints with the AOT engine.
+     *
+     * @param hints the hints collected for the native image
+     * @param classLoader the class loader of the application
+     */
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        for (String type : JJWT_REFLECTIVE_TYPES) {
+            hints.reflection().registerType(TypeReference.of(type),
+                    MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS,
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                    MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+
+        for (Class<?> entity : ENTITY_TYPES) {
+            hints.reflection().registerType(entity,
+                    MemberCategory.DECLARED_FIELDS,
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                    MemberCategory.INVOKE_DECLARED_METHODS);
+        }
+
+        for (Class<?> type : JDBC_PROXIED_TYPES) {
+            hints.proxies().registerJdkProxy(type); // Proxy classes are generated at build time in a native image
+            hints.reflection().registerType(type, MemberCategory.INVOKE_PUBLIC_METHODS); // The handlers forward through Method.invoke
+        }
+
+        BindableRuntimeHintsRegistrar.forTypes(HikariDataSource.class).registerHints(hints, classLoader); // Bound with a Binder, unseen by AOT
+
+        hints.resources().registerPattern("META-INF/services/io.jsonwebtoken.*"); // Lets JJWT discover its Jackson serializer
+        hints.resources().registerPattern(".env"); // Optional dotenv file packaged with the app
+    }
+}
@@ -0,0 +1,113 @@
+package org.api.doit.controller;
+
+import jakarta.validation.Valid;
+import org.api.doit.dto.RevokeTokenRequest;
+import org.api.doit.jfr.ProfilingService;
+import org.api.doit.service.TokenRevocationService;
+import org.api.doit.timing.SlowRequestRing;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+
+/**
+ * Controller responsible for administrative operations, available to users with the ADMIN role.
+ */
+@RestController
+@RequestMapping("/api/v1/admin")
+public class AdminController {
+    private final TokenRevocationService tokenRevocationService;
+    private final ProfilingService profilingService;
+    private final SlowRequestRing slowRequestRing;
+
+    public AdminController(TokenRevocationService tokenRevocationService, ProfilingService profilingService, SlowRequestRing slowRequestRing) {
+        this.tokenRevocationService = tokenRevocationService;
+        this.profilingService = profilingService;
+        this.slowRequestRing = slowRequestRing;
+    }
+
+    /**
+     * Revokes a single token before its expiry.
+     *
+     * @param revokeTokenRequest the request body containing the token to revoke
+     * @return an empty response
+     */
+    @PostMapping("/tokens/revoke")
+    public ResponseEntity<?> revokeToken(@Valid @RequestBody RevokeTokenRequest revokeTokenRequest) {
+        tokenRevocationService.revokeToken(revokeTokenRequest.token());
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Revokes every token issued to a user so far.
+     *
+     * @param userId the ID of the user whose tokens are revoked
+     * @return an empty response
+     */
+    @PostMapping("/users/{userId}/tokens/revoke")
+    public ResponseEntity<?> revokeUserTokens(@PathVariable UUID userId) {
+        tokenRevocationService.revokeUserTokens(userId);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Retrieves the most recent requests slower than the threshold, with their phase breakdown and SQL.
+     *
+     * @return the slow requests, most recent first
+     */
+    @GetMapping("/slow-requests")
+    public ResponseEntity<?> getSlowRequests() {
+        return ResponseEntity.ok().body(slowRequestRing.snapshot());
+    }
+
+    /**
+     * Starts a Flight Recorder recording that stops on its own after the given duration.
+     *
+     * @param durationSeconds how long to record, capped by the server
+     * @return the started recording
+     */
+    @PostMapping("/profiling/start")
+    public ResponseEntity<?> startProfiling(@RequestParam(defaultValue = "60") long durationSeconds) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(profilingService.start(durationSeconds));
+    }
+
+    /**
+     * Retrieves the state of the current Flight Recorder recording.
+     *
+     * @return the recording
+     */
+    @GetMapping("/profiling")
+    public ResponseEntity<?> getProfiling() {
+        return ResponseEntity.ok().body(profilingService.status());
+    }
+
+    /**
+     * Stops the Flight Recorder recording and streams it as a .jfr file.
+     *
+     * @return the recording file, deleted from the server once sent
+     */
+    @PostMapping("/profiling/stop")
+    public ResponseEntity<?> stopProfiling() {
+        Path file = profilingService.stop();
+
+        StreamingResponseBody body = (outputStream) -> {
+            try {
+                Files.copy(file, outputStream);
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(file.getFileName().toString()).build().toString())
+                .body(body);
+    }
+}
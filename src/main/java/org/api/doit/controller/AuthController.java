@@ -3,7 +3,9 @@ package org.api.doit.controller;
 import jakarta.validation.Valid;
 import org.api.doit.dto.LoginRequest;
 import org.api.doit.dto.RegisterRequest;
+import org.api.doit.service.TokenRevocationService;
 import org.api.doit.service.UserService;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -16,9 +18,11 @@ import org.springframework.web.bind.annotation.*;
 public class AuthController {
 
     private final UserService userService;
+    private final TokenRevocationService tokenRevocationService;
 
-    public AuthController(UserService userService) {
+    public AuthController(UserService userService, TokenRevocationService tokenRevocationService) {
         this.userService = userService;
+        this.tokenRevocationService = tokenRevocationService;
     }
 
     /**
@@ -42,4 +46,17 @@ public class AuthController {
     public ResponseEntity<?> login(@Valid @RequestBody LoginRequest loginRequest) {
         return ResponseEntity.status(HttpStatus.OK).body(userService.login(loginRequest));
     }
+
+    /**
+     * Logs out by revoking the token used for this request.
+     *
+     * @param authorization the Authorization header carrying the bearer token
+     * @return an empty response
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(@RequestHeader(HttpHeaders.AUTHORIZATION) String authorization) {
+        // The request was authenticated by the JWT filter, so the header holds a valid bearer token
+        tokenRevocationService.revokeToken(authorization.substring(7));
+        return ResponseEntity.noContent().build();
+    }
 }
@@ -0,0 +1,31 @@
+package org.api.doit.controller;
+
+import jakarta.validation.Valid;
+import org.api.doit.dto.BatchRequest;
+import org.api.doit.service.TaskBatchService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Controller responsible for applying several task operations in a single request.
+ */
+@RestController
+@RequestMapping("/api/v1/batch")
+public class BatchController {
+    private final TaskBatchService taskBatchService;
+
+    public BatchController(TaskBatchService taskBatchService) {
+        this.taskBatchService = taskBatchService;
+    }
+
+    /**
+     * Applies the operations in one transaction and reports the outcome of each one.
+     *
+     * @param batchRequest the request body containing the ordered operations
+     * @return one result per operation, with its own status
+     */
+    @PostMapping
+    public ResponseEntity<?> executeBatch(@Valid @RequestBody BatchRequest batchRequest) {
+        return ResponseEntity.ok().body(taskBatchService.executeBatch(batchRequest.operations()));
+    }
+}
@@ -2,11 +2,24 @@ package org.api.doit.controller;
 
 import jakarta.validation.Valid;
 import org.api.doit.dto.CreateTaskRequest;
+import org.api.doit.dto.LabelMatch;
+import org.api.doit.dto.MoveTaskRequest;
+import org.api.doit.dto.TaskCompletedRequest;
+import org.api.doit.dto.TaskFilterRequest;
+import org.api.doit.dto.TaskLabelsRequest;
 import org.api.doit.dto.TaskResponse;
+import org.api.doit.exception.TaskVersionMismatchException;
+import org.api.doit.security.AuthenticationFacade;
+import org.api.doit.service.TaskCreateBatcher;
 import org.api.doit.service.TaskService;
+import org.api.doit.stream.TaskStreamHub;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 import java.util.UUID;
@@ -18,35 +31,111 @@ import java.util.UUID;
 @RequestMapping("/api/v1/tasks")
 public class TaskController {
     private final TaskService taskService;
+    private final TaskStreamHub taskStreamHub;
+    private final AuthenticationFacade authenticationFacade;
+    private final TaskCreateBatcher taskCreateBatcher; // Null unless group commit is enabled
 
-    public TaskController(TaskService taskService) {
+    public TaskController(TaskService taskService, TaskStreamHub taskStreamHub, AuthenticationFacade authenticationFacade,
+                          ObjectProvider<TaskCreateBatcher> taskCreateBatcher) {
         this.taskService = taskService;
+        this.taskStreamHub = taskStreamHub;
+        this.authenticationFacade = authenticationFacade;
+        this.taskCreateBatcher = taskCreateBatcher.getIfAvailable();
     }
 
     /**
-     * Creates a new task.
+     * Creates a new task, committed together with concurrent creates when group commit is enabled.
      *
      * @param createTaskRequest the request body containing task details
      * @return the created task
      */
     @PostMapping
     public ResponseEntity<?> createTask(@Valid @RequestBody CreateTaskRequest createTaskRequest) {
-        return ResponseEntity.status(HttpStatus.CREATED).body(taskService.createTask(createTaskRequest));
+        TaskResponse task = taskCreateBatcher != null
+                ? taskCreateBatcher.createTask(authenticationFacade.getId(), createTaskRequest)
+                : taskService.createTask(createTaskRequest);
+        return ResponseEntity.status(HttpStatus.CREATED).body(task);
     }
 
     /**
-     * Retrieves all tasks or filters them by completion status if provided.
+     * Retrieves all tasks or filters them by labels and completion status if provided.
      *
      * @param completed optional filter to get only completed or uncompleted tasks
+     * @param includeArchived whether completed tasks moved to cold storage are included; ignored by label filters
+     * @param labels optional comma-separated labels the tasks must carry
+     * @param match whether tasks need ALL the labels or ANY of them
      * @return a list of tasks
      */
     @GetMapping
-    public ResponseEntity<?> getTasks(@RequestParam(required = false) Boolean completed) {
+    public ResponseEntity<?> getTasks(@RequestParam(required = false) Boolean completed,
+                                      @RequestParam(defaultValue = "false") boolean includeArchived,
+                                      @RequestParam(required = false) List<String> labels,
+                                      @RequestParam(defaultValue = "ALL") LabelMatch match) {
+        if (labels != null && !labels.isEmpty()) {
+            return ResponseEntity.ok().body(taskService.getTasksByLabels(labels, match, completed));
+        }
+
         // Chooses between all tasks or filtering by completion status
-        List<TaskResponse> tasks = completed == null ? taskService.getAllTasks() : taskService.getTasksByCompleted(completed);
+        List<TaskResponse> tasks = completed == null
+                ? taskService.getAllTasks(includeArchived)
+                : taskService.getTasksByCompleted(completed, includeArchived);
         return ResponseEntity.ok().body(tasks);
     }
 
+    /**
+     * Retrieves one page of the authenticated user's tasks matching the given criteria.
+     *
+     * @param filter the optional completion status, creation and update ranges, title prefix, sort, page and size
+     * @return the tasks of the page and whether another page follows
+     */
+    @GetMapping("/filter")
+    public ResponseEntity<?> filterTasks(@Valid TaskFilterRequest filter) {
+        return ResponseEntity.ok().body(taskService.filterTasks(filter));
+    }
+
+    /**
+     * Searches the authenticated user's tasks by title and description.
+     *
+     * @param q the query; every word must be the prefix of a word in the task
+     * @return a list of matching tasks
+     */
+    @GetMapping("/search")
+    public ResponseEntity<?> searchTasks(@RequestParam String q) {
+        return ResponseEntity.ok().body(taskService.searchTasks(q));
+    }
+
+    /**
+     * Retrieves the total, completed and open task counts of the authenticated user.
+     *
+     * @return the task counts
+     */
+    @GetMapping("/summary")
+    public ResponseEntity<?> getTaskSummary() {
+        return ResponseEntity.ok().body(taskService.getTaskSummary());
+    }
+
+    /**
+     * Retrieves the tasks created, updated or deleted since the given sync token.
+     *
+     * @param since optional token returned by a previous call; omit it for a first sync
+     * @return the changed tasks, the IDs of deleted tasks and the next sync token
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<?> getChanges(@RequestParam(required = false) String since) {
+        return ResponseEntity.ok().body(taskService.getChanges(since));
+    }
+
+    /**
+     * Opens a Server-Sent Events stream that pushes every create, update and delete
+     * of the authenticated user's tasks as it is committed.
+     *
+     * @return the emitter backing the open stream
+     */
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamTasks() {
+        return taskStreamHub.subscribe(authenticationFacade.getId());
+    }
+
     /**
      * Retrieves a task by its UUID.
      *
@@ -55,7 +144,7 @@ public class TaskController {
      */
     @GetMapping("/{id}")
     public ResponseEntity<?> getTask(@PathVariable UUID id) {
-        return ResponseEntity.ok().body(taskService.getTask(id));
+        return withETag(taskService.getTask(id));
     }
 
     /**
@@ -66,7 +155,48 @@ public class TaskController {
      */
     @PatchMapping("/{id}/completed")
     public ResponseEntity<?> toggleTaskCompleted(@PathVariable UUID id) {
-        return ResponseEntity.ok().body(taskService.toggleTaskCompleted(id));
+        return withETag(taskService.toggleTaskCompleted(id));
+    }
+
+    /**
+     * Sets the 'completed' status of a task to the given value; repeating the request changes nothing.
+     *
+     * @param id the task identifier
+     * @param taskCompletedRequest the request body containing the target status
+     * @return the task with the requested status
+     */
+    @PutMapping("/{id}/completed")
+    public ResponseEntity<?> setTaskCompleted(@PathVariable UUID id, @Valid @RequestBody TaskCompletedRequest taskCompletedRequest) {
+        return withETag(taskService.setTaskCompleted(id, taskCompletedRequest.completed()));
+    }
+
+    /**
+     * Replaces the labels of a task, only if it is still at the version given in If-Match when the header is sent.
+     *
+     * @param id the task identifier
+     * @param taskLabelsRequest the request body containing the complete list of labels
+     * @param ifMatch the ETag of the task the client last saw, optional
+     * @return the updated task
+     */
+    @PutMapping("/{id}/labels")
+    public ResponseEntity<?> setTaskLabels(@PathVariable UUID id, @Valid @RequestBody TaskLabelsRequest taskLabelsRequest,
+                                           @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return withETag(taskService.setTaskLabels(id, taskLabelsRequest, expectedVersion(ifMatch)));
+    }
+
+    /**
+     * Moves a task between two other tasks of the manual order,
+     * only if it is still at the version given in If-Match when the header is sent.
+     *
+     * @param id the task identifier
+     * @param moveTaskRequest the request body containing the IDs of the new neighbors
+     * @param ifMatch the ETag of the task the client last saw, optional
+     * @return the moved task with its new position
+     */
+    @PatchMapping("/{id}/position")
+    public ResponseEntity<?> moveTask(@PathVariable UUID id, @RequestBody MoveTaskRequest moveTaskRequest,
+                                      @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return withETag(taskService.moveTask(id, moveTaskRequest, expectedVersion(ifMatch)));
     }
 
     /**
@@ -80,4 +210,35 @@ public class TaskController {
         taskService.deleteTask(id);
         return ResponseEntity.noContent().build();
     }
+
+    /**
+     * Answers with a single task, its version as the ETag to send back in If-Match.
+     */
+    private ResponseEntity<?> withETag(TaskResponse task) {
+        return ResponseEntity.ok().eTag(Long.toString(task.version())).body(task);
+    }
+
+    /**
+     * Reads the version a conditional request expects from its If-Match header.
+     *
+     * @param ifMatch the header value, such as "3", or absent
+     * @return the expected version, or null when the header is absent or "*"
+     * @throws TaskVersionMismatchException if the header holds no version or a weak one, as no task can match it
+     */
+    private static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            // If-Match uses the strong comparison, which a weak validator never passes (RFC 9110, 13.1.1)
+            throw new TaskVersionMismatchException("If-Match " + ifMatch + " is a weak validator and matches no task version.");
+        }
+        try {
+            return Long.parseLong(tag.replace("\"", ""));
+        } catch (NumberFormatException e) {
+            throw new TaskVersionMismatchException("If-Match " + ifMatch + " does not match any task version.");
+        }
+    }
 }
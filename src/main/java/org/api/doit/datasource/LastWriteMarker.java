@@ -0,0 +1,90 @@
+package org.api.doit.datasource;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/**
+ * Carries the time of a client's last write with the client, so read-your-writes holds on every node:
+ * a write answers with the commit time in the X-Last-Write header and a cookie of the same name,
+ * and the client's next requests send either back. The value only steers reads to the primary,
+ * so a forged or stale one costs a primary read at worst.
+ * Outside of an HTTP request, such as on a scheduler thread, marking does nothing.
+ */
+public final class LastWriteMarker {
+    public static final String HEADER = "X-Last-Write";
+    static final String COOKIE = "last_write";
+
+    private static final String ATTRIBUTE = LastWriteMarker.class.getName(); // Later reads of the same request
+
+    private LastWriteMarker() {
+    }
+
+    /**
+     * Records that the current request's write has just committed.
+     */
+    public static void mark() {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return;
+        }
+
+        String now = Long.toString(System.currentTimeMillis());
+        attributes.getRequest().setAttribute(ATTRIBUTE, now);
+
+        HttpServletResponse response = attributes.getResponse();
+        if (response != null && !response.isCommitted()) {
+            response.setHeader(HEADER, now);
+            response.addHeader(HttpHeaders.SET_COOKIE, ResponseCookie.from(COOKIE, now)
+                    .path("/")
+                    .httpOnly(true)
+                    .sameSite("Lax")
+                    .build()
+                    .toString());
+        }
+    }
+
+    /**
+     * Returns the time of the last write the current client made, as it sent it back.
+     *
+     * @return the commit time in epoch milliseconds, or null if unknown
+     */
+    static Long lastWrite() {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return null;
+        }
+
+        HttpServletRequest request = attributes.getRequest();
+        if (request.getAttribute(ATTRIBUTE) instanceof String marked) {
+            return parse(marked);
+        }
+        Long fromHeader = parse(request.getHeader(HEADER));
+        if (fromHeader != null) {
+            return fromHeader;
+        }
+
+        Cookie[] cookies = request.getCookies();
+        if (cookies != null) {
+            for (Cookie cookie : cookies) {
+                if (COOKIE.equals(cookie.getName())) {
+                    return parse(cookie.getValue());
+                }
+            }
+        }
+        return null;
+    }
+
+    private static Long parse(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return null; // Ignored like an absent marker
+        }
+    }
+}
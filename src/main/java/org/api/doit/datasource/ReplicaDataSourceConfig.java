@@ -0,0 +1,113 @@
+package org.api.doit.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Replaces the auto-configured DataSource with a primary/replica routing one
+ * when app.datasource.replicas.enabled is true. Every pool gets the spring.datasource.hikari.* settings,
+ * as the auto-configured pool would.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replicas.enabled", havingValue = "true")
+public class ReplicaDataSourceConfig {
+    private final Environment environment;
+
+    @Value("${spring.datasource.url}")
+    private String primaryUrl;
+
+    @Value("${spring.datasource.username}")
+    private String username;
+
+    @Value("${spring.datasource.password}")
+    private String password;
+
+    @Value("${app.datasource.replicas.urls}")
+    private String replicaUrls;
+
+    @Value("${app.datasource.replicas.read-your-writes-ms}")
+    private long readYourWritesMs;
+
+    /**
+     * Constructor for dependency injection.
+     *
+     * @param environment Source of the spring.datasource.hikari.* settings bound to every pool.
+     */
+    public ReplicaDataSourceConfig(final Environment environment) {
+        this.environment = environment;
+    }
+
+    /**
+     * Builds the routing DataSource over one pool for the primary and one per replica URL.
+     *
+     * @return the routing DataSource
+     */
+    @Bean
+    @Lazy(false) // Replica health checks only start once the bean exists, even under lazy initialization
+    public ReplicaRoutingDataSource replicaRoutingDataSource() {
+        List<String> urls = Arrays.stream(replicaUrls.split(","))
+                .map(String::trim)
+                .filter((url) -> !url.isEmpty())
+                .toList();
+
+        List<HikariDataSource> replicas = new ArrayList<>(urls.size());
+        for (int i = 0; i < urls.size(); i++) {
+            replicas.add(pool("replica-" + i, urls.get(i))); // Named like the routing's lookup keys
+        }
+        return new ReplicaRoutingDataSource(pool("primary", primaryUrl), replicas, readYourWritesMs);
+    }
+
+    /**
+     * Exposes the routing DataSource behind a lazy proxy, so the pool is chosen on the first
+     * statement of a transaction, once its read-only flag is known.
+     *
+     * @param replicaRoutingDataSource the routing DataSource
+     * @return the DataSource used by JPA
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    /**
+     * Lets Hibernate tell the routing which transactions wrote, so only their clients read from the primary afterwards.
+     *
+     * @return the customizer registering WriteStatementInspector
+     */
+    @Bean
+    public HibernatePropertiesCustomizer writeStatementInspector() {
+        return (properties) -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new WriteStatementInspector());
+    }
+
+    private HikariDataSource pool(String name, String url) {
+        HikariDataSource pool = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+
+        // What @ConfigurationProperties("spring.datasource.hikari") does for the auto-configured pool
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+        pool.setPoolName(name);
+        return pool;
+    }
+}
@@ -0,0 +1,137 @@
+package org.api.doit.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * DataSource that sends read-only transactions to replica pools and everything else to the primary.
+ * Replicas are picked round-robin among those that passed the last health check, which excludes
+ * replicas whose replay lag exceeds the read-your-writes window. A client that wrote within that window
+ * keeps reading from the primary; the time of its last write travels with the client through
+ * LastWriteMarker, so this holds whichever node serves the next request; WriteStatementInspector marks
+ * the client once a transaction that wrote commits. Lag can still grow between
+ * two health checks, so the window should leave a margin over the check interval.
+ * <p>
+ * Must be wrapped in a LazyConnectionDataSourceProxy: the read-only flag of a transaction is only
+ * known once it has begun, so the physical connection has to be fetched lazily.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    static final String PRIMARY = "primary";
+
+    // Replay lag in milliseconds; a replica that has replayed all it received is not behind, however old its last transaction
+    private static final String REPLAY_LAG_QUERY = "SELECT CASE WHEN NOT pg_is_in_recovery() THEN 0 " +
+            "WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+            "ELSE COALESCE((EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000)::bigint, " + Long.MAX_VALUE + ") END";
+
+    private final HikariDataSource primary;
+    private final Map<String, HikariDataSource> replicas;
+    private final long readYourWritesMs;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private volatile List<String> healthyReplicas;
+
+    /**
+     * Creates the routing DataSource.
+     *
+     * @param primary the pool of the primary database
+     * @param replicas the pools of the replicas
+     * @param readYourWritesMs how long a client's reads stay on the primary after one of its writes,
+     *                         and the replay lag above which a replica stops receiving reads
+     */
+    public ReplicaRoutingDataSource(HikariDataSource primary, List<HikariDataSource> replicas, long readYourWritesMs) {
+        this.primary = primary;
+        this.readYourWritesMs = readYourWritesMs;
+        this.replicas = new LinkedHashMap<>();
+        for (int i = 0; i < replicas.size(); i++) {
+            this.replicas.put("replica-" + i, replicas.get(i));
+        }
+        this.healthyReplicas = List.copyOf(this.replicas.keySet());
+
+        Map<Object, Object> targets = new HashMap<>(this.replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    /**
+     * Chooses the pool for the connection being fetched.
+     *
+     * @return the lookup key of the primary or of a healthy replica
+     */
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARY; // WriteStatementInspector marks the client if the transaction does write
+        }
+
+        if (wroteRecently()) {
+            return PRIMARY;
+        }
+
+        List<String> healthy = healthyReplicas;
+        if (healthy.isEmpty()) {
+            return PRIMARY;
+        }
+        return healthy.get(Math.floorMod(nextReplica.getAndIncrement(), healthy.size()));
+    }
+
+    /**
+     * Probes every replica and only keeps routing reads to the ones that answer
+     * and lag behind the primary by less than the read-your-writes window.
+     */
+    @Scheduled(fixedDelayString = "${app.datasource.replicas.health-check-interval-ms}")
+    public void checkReplicas() {
+        List<String> healthy = new ArrayList<>();
+
+        for (Map.Entry<String, HikariDataSource> replica : replicas.entrySet()) {
+            try (Connection connection = replica.getValue().getConnection();
+                 Statement statement = connection.createStatement()) {
+                statement.setQueryTimeout(2);
+                try (ResultSet lag = statement.executeQuery(REPLAY_LAG_QUERY)) {
+                    if (lag.next() && lag.getLong(1) < readYourWritesMs) {
+                        healthy.add(replica.getKey());
+                    } else {
+                        log.debug("Replica {} lags behind the primary by more than {} ms", replica.getKey(), readYourWritesMs);
+                    }
+                }
+            } catch (Exception e) {
+                log.debug("Replica {} failed its health check", replica.getKey(), e);
+            }
+        }
+
+        if (!healthy.equals(healthyReplicas)) {
+            log.warn("Healthy replicas changed from {} to {}", healthyReplicas, healthy);
+        }
+        healthyReplicas = List.copyOf(healthy);
+    }
+
+    /**
+     * Closes the primary and replica pools on shutdown.
+     */
+    @Override
+    public void destroy() {
+        replicas.values().forEach(HikariDataSource::close);
+        primary.close();
+    }
+
+    private boolean wroteRecently() {
+        Long writtenAt = LastWriteMarker.lastWrite();
+        return writtenAt != null && System.currentTimeMillis() - writtenAt < readYourWritesMs;
+    }
+}
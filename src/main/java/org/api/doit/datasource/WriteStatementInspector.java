@@ -0,0 +1,50 @@
+package org.api.doit.datasource;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Hibernate statement inspector that marks the client once its transaction commits a write.
+ * A transaction that is not read-only but only reads, such as a summary whose counters already exist,
+ * so leaves the client's reads on the replicas. Every write of the application goes through Hibernate,
+ * entity changes and native queries alike, so each of them passes here.
+ */
+public class WriteStatementInspector implements StatementInspector {
+    private static final String[] WRITE_KEYWORDS = {"insert", "update", "delete", "merge"};
+
+    /**
+     * Registers the commit callback on the transaction's first write statement.
+     *
+     * @param sql the statement about to be prepared
+     * @return the statement, unchanged
+     */
+    @Override
+    public String inspect(String sql) {
+        if (isWrite(sql) && TransactionSynchronizationManager.isSynchronizationActive()
+                && TransactionSynchronizationManager.getSynchronizations().stream().noneMatch(MarkAfterCommit.class::isInstance)) {
+            TransactionSynchronizationManager.registerSynchronization(new MarkAfterCommit());
+        }
+        return sql;
+    }
+
+    static boolean isWrite(String sql) {
+        String statement = sql.stripLeading();
+        for (String keyword : WRITE_KEYWORDS) {
+            if (statement.regionMatches(true, 0, keyword, 0, keyword.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Hands the client the commit time, so its next reads see the write on any node.
+     */
+    private static final class MarkAfterCommit implements TransactionSynchronization {
+        @Override
+        public void afterCommit() {
+            LastWriteMarker.mark();
+        }
+    }
+}
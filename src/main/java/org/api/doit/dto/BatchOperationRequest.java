@@ -0,0 +1,20 @@
+package org.api.doit.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.UUID;
+
+/**
+ * A single operation of a batch: CREATE needs a task, TOGGLE and DELETE need the id of an existing task.
+ */
+public record BatchOperationRequest(
+        @NotNull(message = "The operation type is required")
+        BatchOperationType type,
+
+        UUID id,
+
+        @Valid
+        CreateTaskRequest task
+) {
+}
@@ -0,0 +1,7 @@
+package org.api.doit.dto;
+
+/**
+ * Outcome of a single batch operation, with the HTTP status it would have had as a standalone request.
+ */
+public record BatchOperationResult(int index, int status, TaskResponse task, String error) {
+}
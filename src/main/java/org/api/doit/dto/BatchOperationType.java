@@ -0,0 +1,7 @@
+package org.api.doit.dto;
+
+public enum BatchOperationType {
+    CREATE,
+    TOGGLE,
+    DELETE
+}
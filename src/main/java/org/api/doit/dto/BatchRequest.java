@@ -0,0 +1,17 @@
+package org.api.doit.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+/**
+ * An ordered list of task operations. Their number is limited by app.batch.max-operations alone,
+ * enforced by TaskBatchService with a 413 response.
+ */
+public record BatchRequest(
+        @NotEmpty(message = "A batch must contain at least one operation")
+        List<@Valid @NotNull BatchOperationRequest> operations
+) {
+}
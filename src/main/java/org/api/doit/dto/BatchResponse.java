@@ -0,0 +1,6 @@
+package org.api.doit.dto;
+
+import java.util.List;
+
+public record BatchResponse(List<BatchOperationResult> results) {
+}
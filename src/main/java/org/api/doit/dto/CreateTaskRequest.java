@@ -3,13 +3,23 @@ package org.api.doit.dto;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 public record CreateTaskRequest(
         @NotBlank(message = "The task title cannot be empty")
         @Size(min = 3, max = 30, message = "The task title must contain between 3 to 30 characters.")
         String title,
 
         @Size(max = 250, message = "The task description allows up to 255 characters only.")
-        String description
+        String description,
+
+        LocalDateTime dueAt,
+
+        LocalDateTime remindAt,
+
+        @Size(max = 10, message = "A task allows up to 10 labels.")
+        List<@NotBlank(message = "A label cannot be empty") @Size(max = 30, message = "A label allows up to 30 characters only.") String> labels
 ) {
 
     public CreateTaskRequest {
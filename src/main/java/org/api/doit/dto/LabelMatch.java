@@ -0,0 +1,9 @@
+package org.api.doit.dto;
+
+/**
+ * How a label filter combines its labels: ALL keeps tasks carrying every label, ANY tasks carrying at least one.
+ */
+public enum LabelMatch {
+    ALL,
+    ANY
+}
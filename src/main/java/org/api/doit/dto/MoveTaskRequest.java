@@ -0,0 +1,10 @@
+package org.api.doit.dto;
+
+import java.util.UUID;
+
+/**
+ * New place of a task, given by the tasks that will surround it.
+ * Leave afterId empty to move the task to the top, or beforeId empty to move it to the bottom.
+ */
+public record MoveTaskRequest(UUID afterId, UUID beforeId) {
+}
@@ -0,0 +1,9 @@
+package org.api.doit.dto;
+
+import java.time.Instant;
+
+/**
+ * State of the on-demand Flight Recorder recording; it stops on its own once maxDurationSeconds have elapsed.
+ */
+public record RecordingResponse(long id, String state, Instant startedAt, long maxDurationSeconds) {
+}
@@ -0,0 +1,10 @@
+package org.api.doit.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+public record RevokeTokenRequest(@NotBlank(message = "Token cannot be empty.")
+                                 String token) {
+    public RevokeTokenRequest {
+        token = token != null ? token.trim() : null;
+    }
+}
@@ -0,0 +1,13 @@
+package org.api.doit.dto;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A request that took longer than the slow-request threshold, with the time spent in each phase
+ * and the first statements it ran. droppedStatements counts the statements that did not fit.
+ */
+public record SlowRequestResponse(Instant finishedAt, String method, String path, int status, double totalMs,
+                                  Map<String, Double> phasesMs, List<SlowStatementResponse> statements, int droppedStatements) {
+}
@@ -0,0 +1,7 @@
+package org.api.doit.dto;
+
+/**
+ * A SQL statement run by a slow request, with its execution time.
+ */
+public record SlowStatementResponse(String sql, double durationMs) {
+}
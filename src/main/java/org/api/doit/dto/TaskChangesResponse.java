@@ -0,0 +1,11 @@
+package org.api.doit.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Changes to a user's tasks since a sync token.
+ * When fullResync is true the client must replace its local copy with the changed list.
+ */
+public record TaskChangesResponse(List<TaskResponse> changed, List<UUID> deleted, boolean fullResync, String syncToken) {
+}
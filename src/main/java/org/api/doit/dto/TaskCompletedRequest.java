@@ -0,0 +1,12 @@
+package org.api.doit.dto;
+
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * The completion status a task should end up with, whatever its current one.
+ */
+public record TaskCompletedRequest(
+        @NotNull(message = "The completed status is required")
+        Boolean completed
+) {
+}
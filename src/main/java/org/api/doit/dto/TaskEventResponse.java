@@ -0,0 +1,8 @@
+package org.api.doit.dto;
+
+import org.api.doit.event.TaskChangeType;
+
+import java.util.UUID;
+
+public record TaskEventResponse(TaskChangeType type, UUID taskId, TaskResponse task) {
+}
@@ -0,0 +1,53 @@
+package org.api.doit.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
+import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+/**
+ * Criteria of a filtered task list, bound from the query string. Every criterion is optional;
+ * the ranges are inclusive of their lower bound and exclusive of their upper bound.
+ * Pages are read either by number, for the first pages, or with the cursor returned by the previous page.
+ */
+public record TaskFilterRequest(
+        Boolean completed,
+
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+        LocalDateTime createdFrom,
+
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+        LocalDateTime createdTo,
+
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+        LocalDateTime updatedFrom,
+
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+        LocalDateTime updatedTo,
+
+        @Size(max = 30, message = "The title prefix allows up to 30 characters only.")
+        String titlePrefix,
+
+        TaskSortField sort,
+
+        Sort.Direction direction,
+
+        @Min(value = 0, message = "The page cannot be negative")
+        Integer page,
+
+        @Min(value = 1, message = "The page size must be at least 1")
+        Integer size,
+
+        String cursor // Opaque position returned as nextCursor; replaces the page number
+) {
+
+    public TaskFilterRequest {
+        titlePrefix = titlePrefix != null && !titlePrefix.isBlank() ? titlePrefix.trim() : null;
+        sort = sort != null ? sort : TaskSortField.POSITION;
+        direction = direction != null ? direction : Sort.Direction.ASC;
+        page = page != null ? page : 0;
+        cursor = cursor != null && !cursor.isBlank() ? cursor.trim() : null;
+    }
+}
@@ -0,0 +1,17 @@
+package org.api.doit.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * The complete set of labels of a task; labels missing from the list are removed from it.
+ */
+public record TaskLabelsRequest(
+        @NotNull(message = "The labels are required, use an empty list to remove them all")
+        @Size(max = 10, message = "A task allows up to 10 labels.")
+        List<@NotBlank(message = "A label cannot be empty") @Size(max = 30, message = "A label allows up to 30 characters only.") String> labels
+) {
+}
@@ -0,0 +1,10 @@
+package org.api.doit.dto;
+
+import java.util.List;
+
+/**
+ * One page of a filtered task list. The total is not counted; hasNext tells whether another page follows,
+ * and nextCursor reads it without an offset.
+ */
+public record TaskPageResponse(List<TaskResponse> tasks, int page, int size, boolean hasNext, String nextCursor) {
+}
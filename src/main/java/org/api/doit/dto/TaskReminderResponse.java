@@ -0,0 +1,7 @@
+package org.api.doit.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record TaskReminderResponse(UUID taskId, String title, LocalDateTime dueAt, LocalDateTime remindAt) {
+}
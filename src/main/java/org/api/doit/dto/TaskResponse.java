@@ -1,17 +1,47 @@
 package org.api.doit.dto;
 
+import org.api.doit.entity.ArchivedTask;
+import org.api.doit.entity.Label;
 import org.api.doit.entity.Task;
+import org.api.doit.timing.RequestPhase;
+import org.api.doit.timing.RequestTimings;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
-public record TaskResponse(UUID id, String title, String description, boolean completed, LocalDateTime createdAt) {
+public record TaskResponse(UUID id, String title, String description, boolean completed, LocalDateTime createdAt, String position,
+                           LocalDateTime dueAt, LocalDateTime remindAt, List<String> labels, long version) {
     public static TaskResponse from(Task task) {
+        long started = RequestTimings.start();
+        try {
+            return new TaskResponse(
+                    task.getId(),
+                    task.getTitle(),
+                    task.getDescription(),
+                    task.isCompleted(),
+                    task.getCreatedAt(),
+                    task.getPosition(),
+                    task.getDueAt(),
+                    task.getRemindAt(),
+                    task.getLabels().stream().map(Label::getName).sorted().toList(),
+                    task.getVersion());
+        } finally {
+            RequestTimings.record(RequestPhase.MAPPING, started);
+        }
+    }
+
+    public static TaskResponse from(ArchivedTask task) {
         return new TaskResponse(
                 task.getId(),
                 task.getTitle(),
                 task.getDescription(),
                 task.isCompleted(),
-                task.getCreatedAt());
+                task.getCreatedAt(),
+                null, // Archived tasks leave the manual order
+                task.getDueAt(),
+                null, // and, being completed, no longer have a reminder
+                task.getLabels() != null ? task.getLabels() : List.of(),
+                0); // Archived tasks are never edited
     }
 }
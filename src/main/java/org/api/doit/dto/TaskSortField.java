@@ -0,0 +1,22 @@
+package org.api.doit.dto;
+
+/**
+ * Fields a filtered task list can be sorted by, with the entity property backing each.
+ */
+public enum TaskSortField {
+    POSITION("position"),
+    CREATED_AT("createdAt"),
+    UPDATED_AT("updatedAt"),
+    DUE_AT("dueAt"),
+    TITLE("title");
+
+    private final String property;
+
+    TaskSortField(String property) {
+        this.property = property;
+    }
+
+    public String property() {
+        return property;
+    }
+}
@@ -0,0 +1,4 @@
+package org.api.doit.dto;
+
+public record TaskSummaryResponse(long total, long completed, long open) {
+}
@@ -0,0 +1,60 @@
+package org.api.doit.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Entity class representing a completed Task moved to cold storage.
+ * Archived tasks are read-only copies of the original row, kept out of the
+ * tasks table so that its indexes stay small.
+ */
+@Entity
+@Table(name = "tasks_archive",
+        indexes = @Index(name = "idx_tasks_archive_user_created_at", columnList = "user_id, created_at")) // Backs the per-user archive listing
+@Getter
+public class ArchivedTask {
+
+    @Id
+    private UUID id; // Same ID the task had in the tasks table
+
+    @Column(name = "title", nullable = false)
+    private String title;
+
+    @Column(name = "description", nullable = true)
+    private String description;
+
+    @Column(name = "completed", nullable = false)
+    private boolean completed;
+
+    @Column(name = "due_at")
+    private LocalDateTime dueAt;
+
+    @Column(name = "user_id", nullable = false) // Plain column, the archive does not join back to users
+    private UUID userId;
+
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(name = "labels") // Label names at archiving time, as the archive does not join back to labels either
+    private List<String> labels; // Null for tasks archived before labels were kept
+
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+
+    /**
+     * Default constructor required by JPA.
+     * It is protected to prevent direct usage outside the persistence context.
+     * Rows are only ever created by the archiver's INSERT ... SELECT.
+     */
+    protected ArchivedTask() {}
+}
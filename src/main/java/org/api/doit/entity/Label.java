@@ -0,0 +1,35 @@
+package org.api.doit.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+
+import java.util.UUID;
+
+/**
+ * Entity class representing a Label in the database.
+ * Labels belong to a user and are shared by any number of that user's tasks.
+ * Names are stored lowercase and are unique per user.
+ */
+@Entity
+@Table(name = "labels",
+        uniqueConstraints = @UniqueConstraint(name = "uk_labels_user_name", columnNames = {"user_id", "name"})) // Target of the insert-if-absent upsert
+@Getter
+public class Label {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID) // Automatically generates a UUID as the label ID
+    private UUID id;
+
+    @Column(name = "user_id", nullable = false) // The owner of the label
+    private UUID userId;
+
+    @Column(name = "name", nullable = false, length = 30)
+    private String name;
+
+    /**
+     * Default constructor required by JPA.
+     * It is protected to prevent direct usage outside the persistence context.
+     * Rows are only ever written by the repository's upsert.
+     */
+    protected Label() {}
+}
@@ -0,0 +1,68 @@
+package org.api.doit.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Entity class representing a task change waiting in the outbox.
+ * Rows are written in the transaction that changes the task, and deleted by the relay
+ * once the change has been handed to the publisher, so the table only holds undelivered events.
+ * IDs are preallocated before commit, so they follow neither the order of the changes nor their commits:
+ * the changes of a task are ordered by its version, and a deletion or archiving is its last change.
+ */
+@Entity
+@Table(name = "task_outbox")
+@Getter
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "task_outbox_seq")
+    @SequenceGenerator(name = "task_outbox_seq", sequenceName = "task_outbox_seq", allocationSize = 50) // Preallocated IDs keep the inserts batchable
+    private Long id; // Identifies the event for deduplication; says nothing about ordering
+
+    @Column(name = "type", nullable = false, length = 16) // The TaskChangeType of the change
+    private String type;
+
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    @Column(name = "task_id", nullable = false)
+    private UUID taskId;
+
+    @Column(name = "payload", columnDefinition = "text") // The task as JSON, null for deletions
+    private String payload;
+
+    @Column(name = "task_version") // The task's version after the change, null for deletions and archiving
+    private Long taskVersion;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    /**
+     * Default constructor required by JPA.
+     * It is protected to prevent direct usage outside the persistence context.
+     */
+    protected OutboxEvent() {}
+
+    /**
+     * Constructor for creating an outbox event.
+     *
+     * @param type the kind of change
+     * @param userId the ID of the user owning the task
+     * @param taskId the ID of the changed task
+     * @param payload the task as JSON, or null for a deletion
+     * @param taskVersion the task's version after the change, or null for a deletion or archiving
+     * @param createdAt the moment the change was made
+     */
+    public OutboxEvent(String type, UUID userId, UUID taskId, String payload, Long taskVersion, LocalDateTime createdAt) {
+        this.type = type;
+        this.userId = userId;
+        this.taskId = taskId;
+        this.payload = payload;
+        this.taskVersion = taskVersion;
+        this.createdAt = createdAt;
+    }
+}
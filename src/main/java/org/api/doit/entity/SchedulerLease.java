@@ -0,0 +1,33 @@
+package org.api.doit.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entity class representing a lease on a background job that must run on a single node at a time.
+ * The holder renews the lease before it expires; another node may take it over once it has expired.
+ */
+@Entity
+@Table(name = "scheduler_leases")
+@Getter
+public class SchedulerLease {
+
+    @Id
+    @Column(name = "name") // The job the lease is for
+    private String name;
+
+    @Column(name = "owner", nullable = false) // The instance currently holding the lease
+    private String owner;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    /**
+     * Default constructor required by JPA.
+     * It is protected to prevent direct usage outside the persistence context.
+     * Rows are only ever written by the repository's upsert.
+     */
+    protected SchedulerLease() {}
+}
@@ -3,10 +3,15 @@ package org.api.doit.entity;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -15,7 +20,14 @@ import java.util.UUID;
  * completion status, and timestamps for creation and updates.
  */
 @Entity
-@Table(name = "tasks")
+@Table(name = "tasks",
+        indexes = {
+                @Index(name = "idx_tasks_user_change_seq", columnList = "user_id, change_seq"), // Backs the per-user changes query
+                @Index(name = "idx_tasks_completed_updated_at", columnList = "completed, updated_at"), // Backs the archiver's candidate query
+                @Index(name = "idx_tasks_user_position", columnList = "user_id, position, created_at"), // Backs the ordered task lists
+                @Index(name = "idx_tasks_user_created_at", columnList = "user_id, created_at"), // Backs filters on or sorted by the creation date
+                @Index(name = "idx_tasks_reminder_sent_remind_at", columnList = "reminder_sent_at, remind_at, id") // Backs the reminder window query on unsent reminders, in paging order
+        })
 @Getter
 public class Task {
 
@@ -35,11 +47,33 @@ public class Task {
     @Setter
     private boolean completed = false;
 
+    @Column(name = "position", columnDefinition = "varchar(255) collate \"C\"") // Rank keys compare byte by byte, whatever the database locale
+    @Setter
+    private String position; // Rank key ordering the user's tasks; null for tasks created before manual ordering
+
+    @Column(name = "due_at")
+    @Setter
+    private LocalDateTime dueAt;
+
+    @Column(name = "remind_at")
+    @Setter
+    private LocalDateTime remindAt;
+
+    @Column(name = "reminder_sent_at") // Set when the reminder fires, so it is never sent twice, even across restarts
+    private LocalDateTime reminderSentAt;
+
     @ManyToOne(fetch = FetchType.LAZY) // Loads the user only when accessed to improve performance
     @JoinColumn(name = "user_id", nullable = false) // Foreign key linking to the user
     @Setter
     private User user;
 
+    @ManyToMany // Labels are shared by the user's tasks through the task_labels join table
+    @JoinTable(name = "task_labels",
+            joinColumns = @JoinColumn(name = "task_id"),
+            inverseJoinColumns = @JoinColumn(name = "label_id"))
+    @BatchSize(size = 100) // Loads the labels of a whole task list in a few queries instead of one per task
+    private Set<Label> labels = new HashSet<>();
+
     @CreationTimestamp // Automatically sets the creation time when the task is first saved
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
@@ -48,6 +82,16 @@ public class Task {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    @Column(name = "change_seq", nullable = false) // The owner's change sequence when the task last changed, see User
+    @ColumnDefault("0") // Lets existing rows get the column when the schema is updated
+    @Setter
+    private long changeSeq;
+
+    @Version // Checked by every entity update, so concurrent edits fail instead of overwriting each other
+    @ColumnDefault("0") // Lets existing rows get the column when the schema is updated
+    @Column(name = "version", nullable = false)
+    private long version;
+
     /**
      * Default constructor required by JPA.
      */
@@ -67,10 +111,14 @@ public class Task {
     }
 
     /**
-     * Toggles the completion status of the task.
-     * If the task is completed, it becomes incomplete, and vice versa.
+     * Replaces the labels of the task.
+     * Labels live in the join table, so the row is touched as well, for the update to bump its version.
+     *
+     * @param labels the new labels of the task
      */
-    public void toggleCompleted() {
-        completed = !completed;
+    public void setLabels(Collection<Label> labels) {
+        this.labels.clear();
+        this.labels.addAll(labels);
+        this.updatedAt = LocalDateTime.now();
     }
 }
@@ -0,0 +1,58 @@
+package org.api.doit.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Entity class representing the deletion of a Task.
+ * Tombstones let clients that sync incrementally learn which tasks were removed
+ * since their last sync, and are purged once they are older than the retention window.
+ */
+@Entity
+@Table(name = "task_tombstones",
+        indexes = {
+                @Index(name = "idx_task_tombstones_user_change_seq", columnList = "user_id, change_seq"), // Backs the per-user changes query
+                @Index(name = "idx_task_tombstones_deleted_at", columnList = "deleted_at") // Backs the purge of expired tombstones
+        })
+@Getter
+public class TaskTombstone {
+
+    @Id
+    @Column(name = "task_id") // The ID of the deleted task
+    private UUID taskId;
+
+    @Column(name = "user_id", nullable = false) // The owner of the deleted task
+    private UUID userId;
+
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+
+    @Column(name = "change_seq", nullable = false) // The owner's change sequence when the task was deleted, see User
+    @ColumnDefault("0") // Lets existing rows get the column when the schema is updated
+    private long changeSeq;
+
+    /**
+     * Default constructor required by JPA.
+     * It is protected to prevent direct usage outside the persistence context.
+     */
+    protected TaskTombstone() {}
+
+    /**
+     * Constructor for creating a tombstone for a deleted task.
+     *
+     * @param taskId the ID of the deleted task
+     * @param userId the ID of the user who owned the task
+     * @param deletedAt the moment the task was deleted
+     * @param changeSeq the owner's change sequence of the deletion
+     */
+    public TaskTombstone(UUID taskId, UUID userId, LocalDateTime deletedAt, long changeSeq) {
+        this.taskId = taskId;
+        this.userId = userId;
+        this.deletedAt = deletedAt;
+        this.changeSeq = changeSeq;
+    }
+}
@@ -3,6 +3,7 @@ package org.api.doit.entity;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.util.List;
 import java.util.UUID;
@@ -10,6 +11,7 @@ import java.util.UUID;
 /**
  * Entity class representing a User in the database.
  * A user has a unique username, a password, and a list of tasks.
+ * Its change sequence orders the changes to its tasks by commit: incremental sync hands it out as the sync token.
  */
 @Entity
 @Table(name = "users")
@@ -28,6 +30,10 @@ public class User {
     @Setter
     private String password;
 
+    @Column(name = "change_seq", nullable = false, insertable = false, updatable = false) // Only ever incremented in SQL
+    @ColumnDefault("0")
+    private long changeSeq; // Incremented by every transaction changing the user's tasks, while it holds the row lock
+
     @OneToMany(mappedBy = "user") // One user can have multiple tasks, but each task has a reference to a single user
     @Setter
     private List<Task> tasks;
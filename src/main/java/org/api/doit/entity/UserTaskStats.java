@@ -0,0 +1,42 @@
+package org.api.doit.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+
+import java.util.UUID;
+
+/**
+ * Entity class holding the task counters of a user.
+ * The counters are adjusted in the same transaction as every task write,
+ * so reading a user's summary never has to scan their tasks.
+ */
+@Entity
+@Table(name = "user_task_stats")
+@Getter
+public class UserTaskStats {
+
+    @Id
+    @Column(name = "user_id") // One row per user, keyed by the user's ID
+    private UUID userId;
+
+    @Column(name = "total_count", nullable = false)
+    private long totalCount;
+
+    @Column(name = "completed_count", nullable = false)
+    private long completedCount;
+
+    /**
+     * Default constructor required by JPA.
+     * It is protected to prevent direct usage outside the persistence context.
+     */
+    protected UserTaskStats() {}
+
+    /**
+     * Constructor for creating the counters of a user who has no tasks yet.
+     *
+     * @param userId the ID of the user
+     */
+    public UserTaskStats(UUID userId) {
+        this.userId = userId;
+    }
+}
@@ -0,0 +1,11 @@
+package org.api.doit.event;
+
+/**
+ * The kind of change applied to a task.
+ */
+public enum TaskChangeType {
+    CREATED,
+    UPDATED,
+    DELETED,
+    ARCHIVED // Moved to cold storage: gone from the task lists, still readable by ID
+}
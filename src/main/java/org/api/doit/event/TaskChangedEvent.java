@@ -0,0 +1,12 @@
+package org.api.doit.event;
+
+import org.api.doit.dto.TaskResponse;
+
+import java.util.UUID;
+
+/**
+ * Application event published whenever a task is created, updated, deleted or archived.
+ * The task snapshot is null for deletions; for archived tasks it is the archived copy.
+ */
+public record TaskChangedEvent(TaskChangeType type, UUID userId, UUID taskId, TaskResponse task) {
+}
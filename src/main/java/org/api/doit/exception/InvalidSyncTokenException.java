@@ -0,0 +1,7 @@
+package org.api.doit.exception;
+
+public class InvalidSyncTokenException extends RuntimeException {
+    public InvalidSyncTokenException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package org.api.doit.exception;
+
+public class InvalidTaskFilterException extends RuntimeException {
+    public InvalidTaskFilterException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package org.api.doit.exception;
+
+public class InvalidTaskPositionException extends RuntimeException {
+    public InvalidTaskPositionException(String message) {
+        super(message);
+    }
+}
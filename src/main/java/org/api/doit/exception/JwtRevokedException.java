@@ -0,0 +1,9 @@
+package org.api.doit.exception;
+
+import org.springframework.security.core.AuthenticationException;
+
+public class JwtRevokedException extends AuthenticationException {
+    public JwtRevokedException(String message) {
+        super(message);
+    }
+}
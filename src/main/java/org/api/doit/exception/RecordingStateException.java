@@ -0,0 +1,7 @@
+package org.api.doit.exception;
+
+public class RecordingStateException extends RuntimeException {
+    public RecordingStateException(String message) {
+        super(message);
+    }
+}
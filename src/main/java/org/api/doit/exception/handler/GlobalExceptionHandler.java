@@ -1,11 +1,19 @@
 package org.api.doit.exception.handler;
 
 import jakarta.servlet.http.HttpServletRequest;
+import org.api.doit.exception.BatchTooLargeException;
+import org.api.doit.exception.InvalidSyncTokenException;
+import org.api.doit.exception.InvalidTaskFilterException;
+import org.api.doit.exception.InvalidTaskPositionException;
+import org.api.doit.exception.InvalidTokenException;
+import org.api.doit.exception.RecordingStateException;
 import org.api.doit.exception.TaskNotFoundException;
+import org.api.doit.exception.TaskVersionMismatchException;
 import org.api.doit.exception.UserAlreadyExistsException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.HttpMediaTypeNotAcceptableException;
 import org.springframework.web.HttpMediaTypeNotSupportedException;
@@ -80,6 +88,111 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(data, HttpStatus.NOT_FOUND);
     }
 
+    /**
+     * Handles InvalidSyncTokenException, which is thrown when a client sends a sync token that cannot be parsed.
+     * It returns a 400 Bad Request error response with the exception details.
+     *
+     * @param exception the exception containing the error message
+     * @param request   the HTTP request that caused the exception
+     * @return a ResponseEntity with the formatted error response
+     */
+    @ExceptionHandler(InvalidSyncTokenException.class)
+    public ResponseEntity<?> handleInvalidSyncTokenException(InvalidSyncTokenException exception, HttpServletRequest request) {
+        Map<String, Object> data =
+                GlobalExceptionBuilder.build(
+                        HttpStatus.BAD_REQUEST.value(),
+                        "Invalid sync token",
+                        exception.getMessage(),
+                        request.getRequestURI(),
+                        request.getMethod());
+
+        return new ResponseEntity<>(data, HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * Handles InvalidTaskFilterException, which is thrown when a task filter asks for too large a page, an invalid cursor or an empty range.
+     * It returns a 400 Bad Request error response with the exception details.
+     *
+     * @param exception the exception containing the error message
+     * @param request   the HTTP request that caused the exception
+     * @return a ResponseEntity with the formatted error response
+     */
+    @ExceptionHandler(InvalidTaskFilterException.class)
+    public ResponseEntity<?> handleInvalidTaskFilterException(InvalidTaskFilterException exception, HttpServletRequest request) {
+        Map<String, Object> data =
+                GlobalExceptionBuilder.build(
+                        HttpStatus.BAD_REQUEST.value(),
+                        "Invalid task filter",
+                        exception.getMessage(),
+                        request.getRequestURI(),
+                        request.getMethod());
+
+        return new ResponseEntity<>(data, HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * Handles InvalidTaskPositionException, which is thrown when a task cannot be placed between the given neighbors.
+     * It returns a 400 Bad Request error response with the exception details.
+     *
+     * @param exception the exception containing the error message
+     * @param request   the HTTP request that caused the exception
+     * @return a ResponseEntity with the formatted error response
+     */
+    @ExceptionHandler(InvalidTaskPositionException.class)
+    public ResponseEntity<?> handleInvalidTaskPositionException(InvalidTaskPositionException exception, HttpServletRequest request) {
+        Map<String, Object> data =
+                GlobalExceptionBuilder.build(
+                        HttpStatus.BAD_REQUEST.value(),
+                        "Invalid task position",
+                        exception.getMessage(),
+                        request.getRequestURI(),
+                        request.getMethod());
+
+        return new ResponseEntity<>(data, HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * Handles InvalidTokenException, which is thrown when a JWT submitted for revocation cannot be verified.
+     * It returns a 400 Bad Request error response with the exception details.
+     *
+     * @param exception the exception containing the error message
+     * @param request   the HTTP request that caused the exception
+     * @return a ResponseEntity with the formatted error response
+     */
+    @ExceptionHandler(InvalidTokenException.class)
+    public ResponseEntity<?> handleInvalidTokenException(InvalidTokenException exception, HttpServletRequest request) {
+        Map<String, Object> data =
+                GlobalExceptionBuilder.build(
+                        HttpStatus.BAD_REQUEST.value(),
+                        "Invalid token",
+                        exception.getMessage(),
+                        request.getRequestURI(),
+                        request.getMethod());
+
+        return new ResponseEntity<>(data, HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * Handles BatchTooLargeException, which is thrown when a batch holds more operations than allowed.
+     * It returns a 413 Payload Too Large error response with the exception details.
+     *
+     * @param exception the exception containing the error message
+     * @param request   the HTTP request that caused the exception
+     * @return a ResponseEntity with the formatted error response
+     */
+    @ExceptionHandler(BatchTooLargeException.class)
+    public ResponseEntity<?> handleBatchTooLargeException(BatchTooLargeException exception, HttpServletRequest request) {
+        Map<String, Object> data =
+                GlobalExceptionBuilder.build(
+                        HttpStatus.PAYLOAD_TOO_LARGE.value(),
+                        "Batch too large",
+                        exception.getMessage(),
+                        request.getRequestURI(),
+                        request.getMethod());
+
+        return new ResponseEntity<>(data, HttpStatus.PAYLOAD_TOO_LARGE);
+    }
+
     /**
      * Handles UserAlreadyExistsException, which is thrown when trying to create a user that already exists.
      * It returns a 409 Conflict error response with the exception details.
@@ -101,6 +214,69 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(data, HttpStatus.CONFLICT);
     }
 
+    /**
+     * Handles RecordingStateException, which is thrown when a JFR recording is started while another one exists
+     * or stopped while none does. It returns a 409 Conflict error response with the exception details.
+     *
+     * @param exception the exception containing the error message
+     * @param request   the HTTP request that caused the exception
+     * @return a ResponseEntity with the formatted error response
+     */
+    @ExceptionHandler(RecordingStateException.class)
+    public ResponseEntity<?> handleRecordingStateException(RecordingStateException exception, HttpServletRequest request) {
+        Map<String, Object> data =
+                GlobalExceptionBuilder.build(
+                        HttpStatus.CONFLICT.value(),
+                        "Invalid recording state",
+                        exception.getMessage(),
+                        request.getRequestURI(),
+                        request.getMethod());
+
+        return new ResponseEntity<>(data, HttpStatus.CONFLICT);
+    }
+
+    /**
+     * Handles TaskVersionMismatchException, which is thrown when a conditional edit's If-Match does not match the task's version.
+     * It returns a 412 Precondition Failed error response with the exception details.
+     *
+     * @param exception the exception containing the error message
+     * @param request   the HTTP request that caused the exception
+     * @return a ResponseEntity with the formatted error response
+     */
+    @ExceptionHandler(TaskVersionMismatchException.class)
+    public ResponseEntity<?> handleTaskVersionMismatchException(TaskVersionMismatchException exception, HttpServletRequest request) {
+        Map<String, Object> data =
+                GlobalExceptionBuilder.build(
+                        HttpStatus.PRECONDITION_FAILED.value(),
+                        "Task version mismatch",
+                        exception.getMessage(),
+                        request.getRequestURI(),
+                        request.getMethod());
+
+        return new ResponseEntity<>(data, HttpStatus.PRECONDITION_FAILED);
+    }
+
+    /**
+     * Handles ObjectOptimisticLockingFailureException, which is thrown when a task changed between being read and written.
+     * It returns a 409 Conflict error response; the client can read the task again and retry.
+     *
+     * @param exception the exception containing the error message
+     * @param request   the HTTP request that caused the exception
+     * @return a ResponseEntity with the formatted error response
+     */
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<?> handleOptimisticLockingFailureException(ObjectOptimisticLockingFailureException exception, HttpServletRequest request) {
+        Map<String, Object> data =
+                GlobalExceptionBuilder.build(
+                        HttpStatus.CONFLICT.value(),
+                        "Concurrent modification",
+                        "The task was modified by another request, read it again and retry",
+                        request.getRequestURI(),
+                        request.getMethod());
+
+        return new ResponseEntity<>(data, HttpStatus.CONFLICT);
+    }
+
     /**
      * Handles exceptions related to unsupported HTTP methods and route not found errors.
      * Specifically, this method handles {@link NoHandlerFoundException} and
@@ -0,0 +1,38 @@
+package org.api.doit.index;
+
+import org.api.doit.dto.TaskResponse;
+
+import java.util.UUID;
+
+/**
+ * An in-memory index over a single user's tasks, kept current from committed task changes.
+ * Implementations synchronize their methods, so an index can be updated while it is read.
+ * Changes reach the index from the committing threads, so they can arrive out of order: an index keeps
+ * the snapshot with the highest version of a task, and remembers removed tasks so a late update cannot bring them back.
+ */
+public interface UserIndex {
+
+    /**
+     * Indexes a new task, or reindexes it if it is already known.
+     * Ignored if the index holds a newer version of the task, or the task was removed.
+     *
+     * @param task the current snapshot of the task
+     */
+    void upsert(TaskResponse task);
+
+    /**
+     * Removes a task from the index for good, even if it was not indexed yet.
+     *
+     * @param taskId the ID of the task
+     */
+    void remove(UUID taskId);
+
+    /**
+     * Returns whether the index wasted so much space on removed tasks that it should be rebuilt.
+     *
+     * @return true to drop the index and rebuild it on the next read
+     */
+    default boolean isFragmented() {
+        return false;
+    }
+}
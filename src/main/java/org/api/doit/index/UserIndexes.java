@@ -0,0 +1,105 @@
+package org.api.doit.index;
+
+import org.api.doit.dto.TaskResponse;
+import org.api.doit.event.TaskChangeType;
+import org.api.doit.event.TaskChangedEvent;
+
+import java.lang.ref.SoftReference;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Holds one index per user, built from the database on the user's first read and then kept current
+ * from committed task changes. Indexes are held through soft references, so the garbage collector
+ * evicts them under memory pressure and they are rebuilt on the next read.
+ * Memory only grows with the users whose index is loaded: cleared references are dropped when met,
+ * and the versions detecting changes racing a build are striped over a fixed number of counters.
+ *
+ * @param <I> the type of the per-user index
+ */
+public final class UserIndexes<I extends UserIndex> {
+    private static final int VERSION_STRIPES = 1024; // Users sharing a stripe only cost each other an index not installed
+
+    private final Map<UUID, SoftReference<I>> indexes = new ConcurrentHashMap<>();
+    private final AtomicLongArray versions = new AtomicLongArray(VERSION_STRIPES); // Bumped on every change
+    private final Function<List<TaskResponse>, I> builder;
+
+    /**
+     * Creates an empty holder.
+     *
+     * @param builder builds a user's index from all of the user's tasks
+     */
+    public UserIndexes(Function<List<TaskResponse>, I> builder) {
+        this.builder = builder;
+    }
+
+    /**
+     * Returns a user's index, building it if it is not loaded.
+     *
+     * @param userId the ID of the user
+     * @param loader supplies all tasks of the user when the index has to be built
+     * @return the user's index
+     */
+    public I get(UUID userId, Supplier<List<TaskResponse>> loader) {
+        I index = current(userId);
+        return index != null ? index : build(userId, loader);
+    }
+
+    /**
+     * Applies a committed task change to the owner's index, if it is loaded.
+     *
+     * @param event the committed task change
+     */
+    public void apply(TaskChangedEvent event) {
+        // Bump first, so a build that loaded its tasks before this commit will not be installed
+        versions.incrementAndGet(stripe(event.userId()));
+
+        I index = current(event.userId());
+        if (index == null) {
+            return;
+        }
+
+        if (event.type() == TaskChangeType.DELETED || event.type() == TaskChangeType.ARCHIVED) {
+            index.remove(event.taskId());
+        } else {
+            index.upsert(event.task());
+        }
+
+        if (index.isFragmented()) {
+            indexes.remove(event.userId());
+        }
+    }
+
+    private I current(UUID userId) {
+        SoftReference<I> reference = indexes.get(userId);
+        if (reference == null) {
+            return null;
+        }
+
+        I index = reference.get();
+        if (index == null) {
+            indexes.remove(userId, reference); // Collected: the entry would otherwise stay forever
+        }
+        return index;
+    }
+
+    private I build(UUID userId, Supplier<List<TaskResponse>> loader) {
+        long version = versions.get(stripe(userId));
+        I index = builder.apply(loader.get());
+
+        // Only install the index if no change was committed while the tasks were being loaded
+        indexes.compute(userId, (id, existing) ->
+                versions.get(stripe(userId)) == version ? new SoftReference<>(index) : existing);
+
+        return index;
+    }
+
+    private static int stripe(UUID userId) {
+        return Math.floorMod(userId.hashCode(), VERSION_STRIPES);
+    }
+}
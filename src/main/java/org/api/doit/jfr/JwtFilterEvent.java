@@ -0,0 +1,55 @@
+package org.api.doit.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event covering the authentication work of the JWT filter for one request,
+ * from reading the header to setting the security context, excluding the rest of the chain.
+ */
+@Name("org.api.doit.JwtFilter")
+@Label("JWT Filter")
+@Category({"DoIt", "Security"})
+@Description("Authentication of a request by the JWT filter")
+@StackTrace(false)
+public class JwtFilterEvent extends Event {
+
+    @Label("Outcome")
+    String outcome;
+
+    @Label("Path")
+    String path;
+
+    /**
+     * Starts timing the authentication of a request.
+     *
+     * @param path the request URI
+     * @return the started event
+     */
+    public static JwtFilterEvent start(String path) {
+        JwtFilterEvent event = new JwtFilterEvent();
+        event.path = path;
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Ends the authentication with its outcome. Only the first call counts, so catch blocks can call it unconditionally.
+     *
+     * @param outcome ANONYMOUS, AUTHENTICATED, REVOKED, EXPIRED or INVALID
+     */
+    public void finish(String outcome) {
+        if (this.outcome != null) {
+            return;
+        }
+        this.outcome = outcome;
+        end();
+        if (shouldCommit()) {
+            commit();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package org.api.doit.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event covering the parsing and signature verification of a JWT.
+ */
+@Name("org.api.doit.JwtParse")
+@Label("JWT Parse")
+@Category({"DoIt", "Security"})
+@Description("Parsing and signature verification of a JWT")
+@StackTrace(false)
+public class JwtParseEvent extends Event {
+
+    @Label("Outcome")
+    String outcome;
+
+    /**
+     * Starts timing the parsing of a token.
+     *
+     * @return the started event
+     */
+    public static JwtParseEvent start() {
+        JwtParseEvent event = new JwtParseEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Ends the parsing and commits the event if a recording is interested in it.
+     *
+     * @param outcome VALID, EXPIRED or INVALID
+     */
+    public void finish(String outcome) {
+        end();
+        if (shouldCommit()) {
+            this.outcome = outcome;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package org.api.doit.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event covering the authentication of a login, dominated by the password hash verification.
+ */
+@Name("org.api.doit.Login")
+@Label("Login")
+@Category({"DoIt", "Security"})
+@Description("User lookup and password hash verification of a login")
+@StackTrace(false)
+public class LoginEvent extends Event {
+
+    @Label("Authenticated")
+    boolean authenticated;
+
+    /**
+     * Starts timing the authentication of a login.
+     *
+     * @return the started event
+     */
+    public static LoginEvent start() {
+        LoginEvent event = new LoginEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Ends the authentication and commits the event if a recording is interested in it.
+     *
+     * @param authenticated whether the credentials were accepted
+     */
+    public void finish(boolean authenticated) {
+        end();
+        if (shouldCommit()) {
+            this.authenticated = authenticated;
+            commit();
+        }
+    }
+}
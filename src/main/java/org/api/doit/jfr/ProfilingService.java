@@ -0,0 +1,122 @@
+package org.api.doit.jfr;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.api.doit.dto.RecordingResponse;
+import org.api.doit.exception.RecordingStateException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+
+/**
+ * Service responsible for the on-demand Flight Recorder recording started by administrators.
+ * A single recording runs at a time, bounded in duration and size, with the JDK's profiling
+ * settings plus the application's own events, so it can be taken in production without an agent.
+ */
+@Service
+public class ProfilingService {
+    private static final Logger log = LoggerFactory.getLogger(ProfilingService.class);
+
+    private Recording recording; // Guarded by this; the latest recording, until its file has been dumped
+
+    @Value("${app.jfr.settings}")
+    private String settings;
+
+    @Value("${app.jfr.max-duration-seconds}")
+    private long maxDurationSeconds;
+
+    @Value("${app.jfr.max-size-bytes}")
+    private long maxSizeBytes;
+
+    /**
+     * Starts a recording that stops on its own after the given duration.
+     *
+     * @param durationSeconds the requested duration, capped at the configured maximum.
+     * @return RecordingResponse describing the started recording.
+     * @throws RecordingStateException if a recording is already running or waiting to be downloaded.
+     */
+    public synchronized RecordingResponse start(final long durationSeconds) {
+        if (recording != null) {
+            throw new RecordingStateException("Recording " + recording.getId() + " is " + recording.getState()
+                    + "; stop it and download its file before starting another one.");
+        }
+
+        Recording started;
+        try {
+            started = new Recording(Configuration.getConfiguration(settings));
+        } catch (IOException | ParseException e) {
+            throw new IllegalStateException("Could not load the JFR settings " + settings, e);
+        }
+
+        started.setName("doit-on-demand");
+        started.setDuration(Duration.ofSeconds(Math.clamp(durationSeconds, 1, maxDurationSeconds)));
+        started.setMaxSize(maxSizeBytes);
+        started.setToDisk(true);
+        started.enable(TaskOperationEvent.class);
+        started.enable(JwtParseEvent.class);
+        started.enable(JwtFilterEvent.class);
+        started.enable(LoginEvent.class);
+        started.start();
+
+        recording = started;
+        log.info("Started JFR recording {} for {}", started.getId(), started.getDuration());
+        return describe(started);
+    }
+
+    /**
+     * Stops the recording, if still running, and dumps it to a temporary file.
+     * The caller streams the file and deletes it.
+     *
+     * @return the path of the .jfr file.
+     * @throws RecordingStateException if no recording was started.
+     */
+    public synchronized Path stop() {
+        if (recording == null) {
+            throw new RecordingStateException("No JFR recording was started.");
+        }
+
+        Recording stopped = recording;
+        recording = null;
+        try {
+            if (stopped.getState() == RecordingState.RUNNING) {
+                stopped.stop();
+            }
+
+            Path file = Files.createTempFile("doit-" + stopped.getId() + "-", ".jfr");
+            stopped.dump(file);
+            log.info("Stopped JFR recording {}, {} bytes", stopped.getId(), Files.size(file));
+            return file;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not dump JFR recording " + stopped.getId(), e);
+        } finally {
+            stopped.close();
+        }
+    }
+
+    /**
+     * Describes the current recording.
+     *
+     * @return RecordingResponse describing the recording.
+     * @throws RecordingStateException if no recording was started.
+     */
+    public synchronized RecordingResponse status() {
+        if (recording == null) {
+            throw new RecordingStateException("No JFR recording was started.");
+        }
+        return describe(recording);
+    }
+
+    private RecordingResponse describe(Recording recording) {
+        return new RecordingResponse(recording.getId(), recording.getState().name(), recording.getStartTime(),
+                recording.getDuration().toSeconds());
+    }
+}
@@ -0,0 +1,52 @@
+package org.api.doit.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event covering one TaskService operation, with the number of rows it returned or wrote.
+ * Operations that fail are not recorded; their exceptions show up in the recording's own error events.
+ */
+@Name("org.api.doit.TaskOperation")
+@Label("Task Operation")
+@Category({"DoIt", "Tasks"})
+@Description("A TaskService operation and the number of rows it handled")
+@StackTrace(false)
+public class TaskOperationEvent extends Event {
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Rows")
+    int rows;
+
+    /**
+     * Starts timing an operation.
+     *
+     * @param operation the name of the TaskService method
+     * @return the started event
+     */
+    public static TaskOperationEvent start(String operation) {
+        TaskOperationEvent event = new TaskOperationEvent();
+        event.operation = operation;
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Ends the operation and commits the event if a recording is interested in it.
+     *
+     * @param rows the number of rows returned or written
+     */
+    public void finish(int rows) {
+        end();
+        if (shouldCommit()) {
+            this.rows = rows;
+            commit();
+        }
+    }
+}
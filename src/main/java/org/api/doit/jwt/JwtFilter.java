@@ -1,5 +1,6 @@
 package org.api.doit.jwt;
 
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.security.SignatureException;
@@ -10,7 +11,11 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.api.doit.exception.handler.CustomAuthenticationEntryPoint;
 import org.api.doit.exception.JwtExpiredException;
 import org.api.doit.exception.JwtInvalidException;
+import org.api.doit.exception.JwtRevokedException;
+import org.api.doit.jfr.JwtFilterEvent;
 import org.api.doit.security.CustomUserDetailsService;
+import org.api.doit.timing.RequestPhase;
+import org.api.doit.timing.RequestTimings;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -29,13 +34,16 @@ import java.util.UUID;
 public class JwtFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
+    private final TokenDenylist tokenDenylist;
     private final CustomUserDetailsService customUserDetailsService;
     private final CustomAuthenticationEntryPoint customAuthenticationEntryPoint;
 
     public JwtFilter(JwtService jwtService,
+                     TokenDenylist tokenDenylist,
                      CustomUserDetailsService customUserDetailsService,
                      CustomAuthenticationEntryPoint customAuthenticationEntryPoint) {
         this.jwtService = jwtService;
+        this.tokenDenylist = tokenDenylist;
         this.customUserDetailsService = customUserDetailsService;
         this.customAuthenticationEntryPoint = customAuthenticationEntryPoint;
     }
@@ -54,11 +62,13 @@ public class JwtFilter extends OncePerRequestFilter {
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
                                     FilterChain filterChain) throws ServletException, IOException {
+        JwtFilterEvent event = JwtFilterEvent.start(request.getRequestURI());
         try {
             String authHeader = request.getHeader("Authorization");
 
             // Checks if the Authorization header is missing or doesn't start with "Bearer "
             if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+                event.finish("ANONYMOUS");
                 filterChain.doFilter(request, response);
                 return;
             }
@@ -66,15 +76,35 @@ public class JwtFilter extends OncePerRequestFilter {
             // Extracts the token from the header (removes "Bearer ")
             String jwt = authHeader.substring(7);
 
-            // Extracts the userId claim from the token
-            String id = jwtService.extractClaim(jwt, "userId", String.class);
+            // Verifies the signature and expiry once and keeps all claims
+            long verifyStarted = RequestTimings.start();
+            Claims claims;
+            try {
+                claims = jwtService.parseClaims(jwt);
+            } finally {
+                RequestTimings.record(RequestPhase.JWT_VERIFY, verifyStarted);
+            }
+            String id = claims.get("userId", String.class);
 
-            // Validates token and ensures no previous authentication exists
-            if (jwtService.isTokenValid(jwt) && id != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            // Ensures the token names a user and no previous authentication exists
+            if (id != null && SecurityContextHolder.getContext().getAuthentication() == null) {
                 UUID uuid = UUID.fromString(id); // Parses the string ID into a UUID
 
+                // Rejects tokens revoked by logout or by an administrator
+                if (isRevoked(claims, uuid)) {
+                    event.finish("REVOKED");
+                    customAuthenticationEntryPoint.commence(request, response, new JwtRevokedException("JWT has been revoked"));
+                    return;
+                }
+
                 // Loads the UserDetails by user ID
-                UserDetails userDetails = customUserDetailsService.loadUserById(uuid);
+                long loadStarted = RequestTimings.start();
+                UserDetails userDetails;
+                try {
+                    userDetails = customUserDetailsService.loadUserById(uuid);
+                } finally {
+                    RequestTimings.record(RequestPhase.PRINCIPAL_LOAD, loadStarted);
+                }
 
                 // Creates an authentication token with user details and authorities
                 UsernamePasswordAuthenticationToken authToken =
@@ -88,17 +118,36 @@ public class JwtFilter extends OncePerRequestFilter {
             }
 
             // Continues the filter chain
+            event.finish("AUTHENTICATED");
             filterChain.doFilter(request, response);
 
         } catch (ExpiredJwtException e) {
             // Token has expired, delegate to custom entry point with specific exception
+            event.finish("EXPIRED");
             customAuthenticationEntryPoint.commence(request, response, new JwtExpiredException("JWT is expired", e));
         } catch (MalformedJwtException | SignatureException | IllegalArgumentException e) {
             // Token is invalid, malformed, or has wrong signature
+            event.finish("INVALID");
             customAuthenticationEntryPoint.commence(request, response, new JwtInvalidException("Invalid JWT", e));
         } catch (Exception e) {
             // Any other unexpected error during token processing
+            event.finish("INVALID");
             customAuthenticationEntryPoint.commence(request, response, new JwtInvalidException("An error occurred while processing JWT", e));
         }
     }
+
+    /**
+     * Checks the token against the revocation denylist, without querying the database.
+     *
+     * @param claims the verified claims of the token
+     * @param userId the user the token was issued to
+     * @return true if the token or all of its user's tokens were revoked
+     */
+    private boolean isRevoked(Claims claims, UUID userId) {
+        // Tokens issued before token IDs were introduced can only be revoked per user
+        if (claims.getId() != null && tokenDenylist.isRevoked(claims.getId(), claims.getExpiration().getTime())) {
+            return true;
+        }
+        return claims.getIssuedAt() != null && tokenDenylist.isUserRevoked(userId, claims.getIssuedAt().getTime());
+    }
 }
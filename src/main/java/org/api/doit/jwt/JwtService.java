@@ -1,7 +1,10 @@
 package org.api.doit.jwt;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import org.api.doit.jfr.JwtParseEvent;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
@@ -17,7 +20,7 @@ public class JwtService {
     @Value("${app.jwt.secret}")
     private String SECRET;
 
-    private final long EXPIRATION_TIME = 1000 * 60 * 60;
+    public static final long EXPIRATION_TIME = 1000 * 60 * 60;
 
     /**
      * Returns the secret key used for signing and verifying the JWT.
@@ -38,6 +41,7 @@ public class JwtService {
      */
     public String generateToken(String username, UUID id) {
         return Jwts.builder()
+                .id(UUID.randomUUID().toString()) // Unique token ID (jti) so a single token can be revoked
                 .subject(username)
                 .claim("userId", id) // Adds a custom claim with the user's UUID
                 .issuedAt(new Date()) // Sets the token issuance time to current time
@@ -46,6 +50,32 @@ public class JwtService {
                 .compact(); // Builds and returns the compact JWT string
     }
 
+    /**
+     * Verifies the token and returns all of its claims, so callers needing several claims parse it once.
+     * Expired tokens are rejected while parsing.
+     *
+     * @param token the JWT token.
+     * @return the verified claims.
+     */
+    public Claims parseClaims(String token) {
+        JwtParseEvent event = JwtParseEvent.start();
+        try {
+            Claims claims = Jwts.parser()
+                    .verifyWith(getSignInKey())
+                    .build()
+                    .parseSignedClaims(token)
+                    .getPayload();
+            event.finish("VALID");
+            return claims;
+        } catch (ExpiredJwtException e) {
+            event.finish("EXPIRED");
+            throw e;
+        } catch (RuntimeException e) {
+            event.finish("INVALID");
+            throw e;
+        }
+    }
+
     /**
      * Extracts a specific claim from the JWT token.
      *
@@ -0,0 +1,189 @@
+package org.api.doit.jwt;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * In-memory record of JWTs revoked before their expiry.
+ * Revoked token IDs are grouped in buckets by expiry time. Each bucket has a Bloom filter that
+ * answers most lookups without touching its exact set, and a bucket is dropped as a whole once
+ * every token in it has expired, so memory is bounded by the tokens revoked within one token lifetime.
+ * Revoking all tokens of a user records a cutoff: tokens issued before it are rejected.
+ * Revocations are kept per instance and are lost on restart.
+ */
+@Component
+@Lazy(false) // Expired buckets are dropped by a scheduled job that needs the bean to exist
+public class TokenDenylist {
+    private static final int HASHES = 3;
+
+    private final long bucketMs;
+    private final int bloomBits;
+    private final AtomicReferenceArray<Bucket> buckets;
+    private final ConcurrentHashMap<UUID, Long> userCutoffs = new ConcurrentHashMap<>();
+
+    /**
+     * Sizes the bucket ring so it covers the lifetime of a token.
+     *
+     * @param bucketMs the span of expiry times grouped in one bucket
+     * @param bloomBits the size of each bucket's Bloom filter, in bits
+     */
+    public TokenDenylist(@Value("${app.jwt.denylist.bucket-ms}") long bucketMs,
+                         @Value("${app.jwt.denylist.bloom-bits}") int bloomBits) {
+        this.bucketMs = bucketMs;
+        this.bloomBits = Math.max(64, bloomBits);
+
+        // Live tokens expire within the next token lifetime, so they never share a slot with another bucket
+        this.buckets = new AtomicReferenceArray<>((int) (JwtService.EXPIRATION_TIME / bucketMs) + 2);
+    }
+
+    /**
+     * Revokes a single token until it expires.
+     *
+     * @param tokenId the token's jti claim
+     * @param expiresAtMillis the token's expiry, in epoch milliseconds
+     */
+    public void revoke(String tokenId, long expiresAtMillis) {
+        if (expiresAtMillis <= System.currentTimeMillis()) {
+            return; // Already rejected as expired
+        }
+
+        long epoch = expiresAtMillis / bucketMs;
+        int slot = slot(epoch);
+
+        Bucket bucket = buckets.get(slot);
+        while (bucket == null || bucket.epoch != epoch) {
+            Bucket created = new Bucket(epoch, bloomBits);
+            bucket = buckets.compareAndSet(slot, bucket, created) ? created : buckets.get(slot);
+        }
+
+        // The exact entry goes first, so a Bloom filter hit always finds it
+        bucket.tokenIds.add(tokenId);
+        bucket.mark(tokenId);
+    }
+
+    /**
+     * Checks whether a token was revoked. Runs on every authenticated request without allocating.
+     *
+     * @param tokenId the token's jti claim
+     * @param expiresAtMillis the token's expiry, in epoch milliseconds
+     * @return true if the token was revoked
+     */
+    public boolean isRevoked(String tokenId, long expiresAtMillis) {
+        long epoch = expiresAtMillis / bucketMs;
+        Bucket bucket = buckets.get(slot(epoch));
+
+        return bucket != null
+                && bucket.epoch == epoch
+                && bucket.mightContain(tokenId)
+                && bucket.tokenIds.contains(tokenId);
+    }
+
+    /**
+     * Revokes every token issued to a user so far.
+     * The iat claim only has second precision, so the cutoff is rounded up to the next second: every token
+     * issued in the second of the revocation is rejected, including one issued right after it. A token
+     * issued before the revocation must never stay valid; a user logging in again within that second
+     * simply has to log in once more.
+     *
+     * @param userId the user whose tokens are revoked
+     */
+    public void revokeUser(UUID userId) {
+        long now = System.currentTimeMillis();
+        userCutoffs.put(userId, now - now % 1000 + 1000);
+    }
+
+    /**
+     * Checks whether a token was issued before its user's tokens were revoked.
+     *
+     * @param userId the token's userId claim
+     * @param issuedAtMillis the token's issue time, in epoch milliseconds
+     * @return true if the token was revoked
+     */
+    public boolean isUserRevoked(UUID userId, long issuedAtMillis) {
+        if (userCutoffs.isEmpty()) {
+            return false;
+        }
+        Long cutoff = userCutoffs.get(userId);
+        return cutoff != null && issuedAtMillis < cutoff;
+    }
+
+    /**
+     * Drops buckets and user cutoffs that only concern tokens which have expired by now.
+     */
+    @Scheduled(fixedDelayString = "${app.jwt.denylist.bucket-ms}")
+    public void discardExpired() {
+        long now = System.currentTimeMillis();
+        long currentEpoch = now / bucketMs;
+
+        for (int slot = 0; slot < buckets.length(); slot++) {
+            Bucket bucket = buckets.get(slot);
+            if (bucket != null && bucket.epoch < currentEpoch) {
+                buckets.compareAndSet(slot, bucket, null);
+            }
+        }
+
+        userCutoffs.values().removeIf((cutoff) -> cutoff + JwtService.EXPIRATION_TIME < now);
+    }
+
+    private int slot(long epoch) {
+        return (int) (epoch % buckets.length());
+    }
+
+    /**
+     * Token IDs expiring within one bucket span.
+     */
+    private static final class Bucket {
+        private final long epoch;
+        private final AtomicLongArray bits;
+        private final int bitCount;
+        private final Set<String> tokenIds = ConcurrentHashMap.newKeySet();
+
+        private Bucket(long epoch, int bitCount) {
+            this.epoch = epoch;
+            this.bitCount = bitCount;
+            this.bits = new AtomicLongArray((bitCount + 63) / 64);
+        }
+
+        private void mark(String tokenId) {
+            int h1 = tokenId.hashCode();
+            int h2 = secondHash(tokenId);
+
+            for (int i = 0; i < HASHES; i++) {
+                int bit = Math.floorMod(h1 + i * h2, bitCount);
+                long mask = 1L << bit;
+                bits.getAndAccumulate(bit >>> 6, mask, (current, added) -> current | added);
+            }
+        }
+
+        private boolean mightContain(String tokenId) {
+            int h1 = tokenId.hashCode();
+            int h2 = secondHash(tokenId);
+
+            for (int i = 0; i < HASHES; i++) {
+                int bit = Math.floorMod(h1 + i * h2, bitCount);
+                if ((bits.get(bit >>> 6) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // FNV-1a over the characters, independent of String.hashCode for double hashing
+        private static int secondHash(String value) {
+            int hash = 0x811c9dc5;
+            for (int i = 0; i < value.length(); i++) {
+                hash ^= value.charAt(i);
+                hash *= 0x01000193;
+            }
+            return hash | 1; // Odd, so successive probes do not collapse onto one bit
+        }
+    }
+}
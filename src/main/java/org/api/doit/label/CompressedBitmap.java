@@ -0,0 +1,398 @@
+package org.api.doit.label;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Compressed bitmap of non-negative ints, laid out like a Roaring bitmap.
+ * Values are grouped into chunks by their upper 16 bits. A chunk holding few values stores them
+ * as a sorted char array, a dense chunk as a 65536-bit bitset, so both sparse and dense sets stay
+ * small, and set operations skip every chunk that is missing on one side.
+ * Not thread-safe. Set operations return new bitmaps and never modify their operands.
+ */
+final class CompressedBitmap {
+
+    private static final int ARRAY_MAX = 4096; // Past this many values a bitset takes less room than the array
+    private static final int BITSET_WORDS = 1 << 10;
+
+    private char[] keys = new char[0];
+    private Container[] containers = new Container[0];
+    private int size; // Number of chunks in use
+
+    /**
+     * Adds a value.
+     *
+     * @param value a non-negative int
+     */
+    void add(int value) {
+        char high = (char) (value >>> 16);
+        int index = Arrays.binarySearch(keys, 0, size, high);
+
+        if (index < 0) {
+            index = -index - 1;
+            insertChunk(index, high, new Container());
+        }
+        containers[index].add((char) value);
+    }
+
+    /**
+     * Removes a value, if present.
+     *
+     * @param value a non-negative int
+     */
+    void remove(int value) {
+        int index = Arrays.binarySearch(keys, 0, size, (char) (value >>> 16));
+        if (index < 0) {
+            return;
+        }
+
+        Container container = containers[index];
+        container.remove((char) value);
+        if (container.cardinality == 0) {
+            System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+            System.arraycopy(containers, index + 1, containers, index, size - index - 1);
+            containers[--size] = null;
+        }
+    }
+
+    /**
+     * Returns whether the bitmap holds no value.
+     *
+     * @return true if the bitmap is empty
+     */
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the number of values in the bitmap.
+     *
+     * @return the cardinality
+     */
+    int cardinality() {
+        int cardinality = 0;
+        for (int i = 0; i < size; i++) {
+            cardinality += containers[i].cardinality;
+        }
+        return cardinality;
+    }
+
+    /**
+     * Computes the values present in both bitmaps.
+     *
+     * @param other the other bitmap
+     * @return a new bitmap with the intersection
+     */
+    CompressedBitmap and(CompressedBitmap other) {
+        CompressedBitmap result = new CompressedBitmap();
+
+        int i = 0;
+        int j = 0;
+        while (i < size && j < other.size) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                result.append(keys[i], containers[i].and(other.containers[j]));
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Computes the values present in either bitmap.
+     *
+     * @param other the other bitmap
+     * @return a new bitmap with the union
+     */
+    CompressedBitmap or(CompressedBitmap other) {
+        CompressedBitmap result = new CompressedBitmap();
+
+        int i = 0;
+        int j = 0;
+        while (i < size || j < other.size) {
+            if (j == other.size || (i < size && keys[i] < other.keys[j])) {
+                result.append(keys[i], containers[i].copy());
+                i++;
+            } else if (i == size || keys[i] > other.keys[j]) {
+                result.append(other.keys[j], other.containers[j].copy());
+                j++;
+            } else {
+                result.append(keys[i], containers[i].or(other.containers[j]));
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Computes the values of this bitmap that are missing from the other one.
+     *
+     * @param other the values to exclude
+     * @return a new bitmap with the difference
+     */
+    CompressedBitmap andNot(CompressedBitmap other) {
+        CompressedBitmap result = new CompressedBitmap();
+
+        int j = 0;
+        for (int i = 0; i < size; i++) {
+            while (j < other.size && other.keys[j] < keys[i]) {
+                j++;
+            }
+
+            if (j < other.size && other.keys[j] == keys[i]) {
+                result.append(keys[i], containers[i].andNot(other.containers[j]));
+            } else {
+                result.append(keys[i], containers[i].copy());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Passes every value to the consumer, in ascending order.
+     *
+     * @param consumer receives the values
+     */
+    void forEach(IntConsumer consumer) {
+        for (int i = 0; i < size; i++) {
+            containers[i].forEach(keys[i] << 16, consumer);
+        }
+    }
+
+    private void insertChunk(int index, char key, Container container) {
+        if (size == keys.length) {
+            int capacity = Math.max(4, size * 2);
+            keys = Arrays.copyOf(keys, capacity);
+            containers = Arrays.copyOf(containers, capacity);
+        }
+
+        System.arraycopy(keys, index, keys, index + 1, size - index);
+        System.arraycopy(containers, index, containers, index + 1, size - index);
+        keys[index] = key;
+        containers[index] = container;
+        size++;
+    }
+
+    // Chunks are produced in key order by the set operations, so appending keeps the keys sorted
+    private void append(char key, Container container) {
+        if (container.cardinality > 0) {
+            insertChunk(size, key, container);
+        }
+    }
+
+    /**
+     * The lower 16 bits of the values of one chunk, as a sorted array or as a bitset.
+     */
+    private static final class Container {
+        private char[] values = new char[4]; // Null once the chunk is stored as a bitset
+        private long[] bits;
+        private int cardinality;
+
+        void add(char value) {
+            if (bits != null) {
+                if (!get(bits, value)) {
+                    bits[value >>> 6] |= 1L << value;
+                    cardinality++;
+                }
+                return;
+            }
+
+            int index = Arrays.binarySearch(values, 0, cardinality, value);
+            if (index >= 0) {
+                return;
+            }
+
+            if (cardinality == ARRAY_MAX) {
+                toBitset();
+                add(value);
+                return;
+            }
+
+            index = -index - 1;
+            if (cardinality == values.length) {
+                values = Arrays.copyOf(values, Math.min(ARRAY_MAX, Math.max(4, cardinality * 2)));
+            }
+            System.arraycopy(values, index, values, index + 1, cardinality - index);
+            values[index] = value;
+            cardinality++;
+        }
+
+        void remove(char value) {
+            if (bits != null) {
+                if (get(bits, value)) {
+                    bits[value >>> 6] &= ~(1L << value);
+                    cardinality--;
+                    if (cardinality <= ARRAY_MAX) {
+                        toArray();
+                    }
+                }
+                return;
+            }
+
+            int index = Arrays.binarySearch(values, 0, cardinality, value);
+            if (index >= 0) {
+                System.arraycopy(values, index + 1, values, index, cardinality - index - 1);
+                cardinality--;
+            }
+        }
+
+        boolean contains(char value) {
+            return bits != null ? get(bits, value) : Arrays.binarySearch(values, 0, cardinality, value) >= 0;
+        }
+
+        Container and(Container other) {
+            if (bits != null && other.bits != null) {
+                long[] result = new long[BITSET_WORDS];
+                for (int i = 0; i < BITSET_WORDS; i++) {
+                    result[i] = bits[i] & other.bits[i];
+                }
+                return fromBitset(result);
+            }
+
+            // Walk the sparse side and probe the other one
+            Container sparse = bits == null ? this : other;
+            Container probed = sparse == this ? other : this;
+            Container result = new Container();
+            result.values = new char[Math.min(sparse.cardinality, Math.max(probed.cardinality, 1))];
+            for (int i = 0; i < sparse.cardinality; i++) {
+                if (probed.contains(sparse.values[i])) {
+                    result.values[result.cardinality++] = sparse.values[i];
+                }
+            }
+            return result;
+        }
+
+        Container or(Container other) {
+            if (bits == null && other.bits == null && cardinality + other.cardinality <= ARRAY_MAX) {
+                Container result = new Container();
+                result.values = new char[Math.max(cardinality + other.cardinality, 1)];
+
+                int i = 0;
+                int j = 0;
+                while (i < cardinality || j < other.cardinality) {
+                    char next;
+                    if (j == other.cardinality || (i < cardinality && values[i] < other.values[j])) {
+                        next = values[i++];
+                    } else if (i == cardinality || values[i] > other.values[j]) {
+                        next = other.values[j++];
+                    } else {
+                        next = values[i++];
+                        j++;
+                    }
+                    result.values[result.cardinality++] = next;
+                }
+                return result;
+            }
+
+            long[] result = new long[BITSET_WORDS];
+            orInto(result);
+            other.orInto(result);
+            return fromBitset(result);
+        }
+
+        Container andNot(Container other) {
+            if (bits == null) {
+                Container result = new Container();
+                result.values = new char[Math.max(cardinality, 1)];
+                for (int i = 0; i < cardinality; i++) {
+                    if (!other.contains(values[i])) {
+                        result.values[result.cardinality++] = values[i];
+                    }
+                }
+                return result;
+            }
+
+            long[] result = bits.clone();
+            if (other.bits != null) {
+                for (int i = 0; i < BITSET_WORDS; i++) {
+                    result[i] &= ~other.bits[i];
+                }
+            } else {
+                for (int i = 0; i < other.cardinality; i++) {
+                    result[other.values[i] >>> 6] &= ~(1L << other.values[i]);
+                }
+            }
+            return fromBitset(result);
+        }
+
+        Container copy() {
+            Container copy = new Container();
+            copy.values = values != null ? Arrays.copyOf(values, Math.max(cardinality, 1)) : null;
+            copy.bits = bits != null ? bits.clone() : null;
+            copy.cardinality = cardinality;
+            return copy;
+        }
+
+        void forEach(int base, IntConsumer consumer) {
+            if (bits == null) {
+                for (int i = 0; i < cardinality; i++) {
+                    consumer.accept(base | values[i]);
+                }
+                return;
+            }
+
+            for (int word = 0; word < BITSET_WORDS; word++) {
+                long remaining = bits[word];
+                while (remaining != 0) {
+                    consumer.accept(base | (word << 6) | Long.numberOfTrailingZeros(remaining));
+                    remaining &= remaining - 1;
+                }
+            }
+        }
+
+        private void orInto(long[] target) {
+            if (bits != null) {
+                for (int i = 0; i < BITSET_WORDS; i++) {
+                    target[i] |= bits[i];
+                }
+            } else {
+                for (int i = 0; i < cardinality; i++) {
+                    target[values[i] >>> 6] |= 1L << values[i];
+                }
+            }
+        }
+
+        private void toBitset() {
+            long[] set = new long[BITSET_WORDS];
+            orInto(set);
+            bits = set;
+            values = null;
+        }
+
+        private void toArray() {
+            char[] sorted = new char[Math.max(cardinality, 1)];
+            int count = 0;
+            for (int word = 0; word < BITSET_WORDS; word++) {
+                long remaining = bits[word];
+                while (remaining != 0) {
+                    sorted[count++] = (char) ((word << 6) | Long.numberOfTrailingZeros(remaining));
+                    remaining &= remaining - 1;
+                }
+            }
+            values = sorted;
+            bits = null;
+        }
+
+        private static Container fromBitset(long[] bits) {
+            Container result = new Container();
+            result.bits = bits;
+            result.values = null;
+            for (long word : bits) {
+                result.cardinality += Long.bitCount(word);
+            }
+            if (result.cardinality <= ARRAY_MAX) {
+                result.toArray();
+            }
+            return result;
+        }
+
+        private static boolean get(long[] bits, char value) {
+            return (bits[value >>> 6] & (1L << value)) != 0;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package org.api.doit.label;
+
+import org.api.doit.dto.LabelMatch;
+import org.api.doit.dto.TaskResponse;
+import org.api.doit.event.TaskChangedEvent;
+import org.api.doit.index.UserIndexes;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * In-process label index over the tasks of each user, answering label filters without joining task_labels.
+ * A user's index is built on their first label filter and then kept current, see UserIndexes.
+ */
+@Component
+public class TaskLabelIndex {
+
+    private final UserIndexes<UserLabelIndex> indexes = new UserIndexes<>(UserLabelIndex::new);
+
+    /**
+     * Filters a user's tasks by label, building the user's index if needed.
+     *
+     * @param userId the ID of the user whose tasks are filtered
+     * @param labels the normalized label names, at least one
+     * @param match whether a task needs every label or at least one
+     * @param completed the completion status to keep, or null for both
+     * @param loader supplies all tasks of the user when the index has to be built
+     * @return the matching tasks in manual order
+     */
+    public List<TaskResponse> filter(UUID userId, Collection<String> labels, LabelMatch match, Boolean completed,
+                                     Supplier<List<TaskResponse>> loader) {
+        return indexes.get(userId, loader).filter(labels, match, completed);
+    }
+
+    /**
+     * Applies a committed task change to the owner's index, if it is loaded.
+     *
+     * @param event the task change published by TaskService
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onTaskChanged(TaskChangedEvent event) {
+        indexes.apply(event);
+    }
+}
@@ -0,0 +1,155 @@
+package org.api.doit.label;
+
+import org.api.doit.dto.LabelMatch;
+import org.api.doit.dto.TaskResponse;
+import org.api.doit.index.UserIndex;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Bitmap index over the labels and completion status of a single user's tasks.
+ * Every task gets a dense ordinal, reused once the task is deleted, and each label maps to
+ * the compressed bitmap of the ordinals carrying it, so a filter is a handful of bitmap operations.
+ * The IDs of deleted tasks are kept so a late update does not index them again.
+ * All methods are synchronized, so an index can be updated while it is queried.
+ */
+final class UserLabelIndex implements UserIndex {
+
+    private static final Comparator<TaskResponse> MANUAL_ORDER =
+            Comparator.comparing(TaskResponse::position, Comparator.nullsLast(Comparator.naturalOrder()))
+                    .thenComparing(TaskResponse::createdAt, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private final List<TaskResponse> tasks = new ArrayList<>(); // Ordinal -> task, null while the ordinal is free
+    private final Map<UUID, Integer> ordinals = new HashMap<>();
+    private final Deque<Integer> freeOrdinals = new ArrayDeque<>();
+    private final Map<String, CompressedBitmap> labels = new HashMap<>();
+    private final CompressedBitmap completed = new CompressedBitmap();
+    private final Set<UUID> removed = new HashSet<>(); // Removed tasks, whatever late update still arrives
+
+    UserLabelIndex(List<TaskResponse> tasks) {
+        tasks.forEach(this::upsert);
+    }
+
+    @Override
+    public synchronized void upsert(TaskResponse task) {
+        if (removed.contains(task.id())) {
+            return;
+        }
+
+        Integer ordinal = ordinals.get(task.id());
+        if (ordinal != null && tasks.get(ordinal).version() > task.version()) {
+            return; // A snapshot older than the indexed one, delivered late
+        }
+
+        if (ordinal == null) {
+            ordinal = freeOrdinals.isEmpty() ? tasks.size() : freeOrdinals.pop();
+            if (ordinal == tasks.size()) {
+                tasks.add(null);
+            }
+            ordinals.put(task.id(), ordinal);
+        } else {
+            unindex(ordinal);
+        }
+
+        tasks.set(ordinal, task);
+        for (String label : task.labels()) {
+            labels.computeIfAbsent(label, (l) -> new CompressedBitmap()).add(ordinal);
+        }
+        if (task.completed()) {
+            completed.add(ordinal);
+        }
+    }
+
+    /**
+     * Also frees the ordinal of the task, to be reused by the next new task.
+     */
+    @Override
+    public synchronized void remove(UUID taskId) {
+        removed.add(taskId);
+        Integer ordinal = ordinals.remove(taskId);
+
+        if (ordinal != null) {
+            unindex(ordinal);
+            tasks.set(ordinal, null);
+            freeOrdinals.push(ordinal);
+        }
+    }
+
+    /**
+     * Ordinals are reused, so only the remembered removals call for a rebuild.
+     */
+    @Override
+    public synchronized boolean isFragmented() {
+        return removed.size() > Math.max(1024, ordinals.size());
+    }
+
+    /**
+     * Finds the tasks carrying all or any of the labels, optionally restricted to a completion status.
+     *
+     * @param names the normalized label names, at least one
+     * @param match whether a task needs every label or at least one
+     * @param completedFilter the completion status to keep, or null for both
+     * @return the matching tasks in manual order
+     */
+    synchronized List<TaskResponse> filter(Collection<String> names, LabelMatch match, Boolean completedFilter) {
+        List<CompressedBitmap> bitmaps = new ArrayList<>(names.size());
+        for (String name : names) {
+            CompressedBitmap bitmap = labels.get(name);
+            if (bitmap != null) {
+                bitmaps.add(bitmap);
+            } else if (match == LabelMatch.ALL) {
+                return List.of(); // No task carries this label
+            }
+        }
+        if (bitmaps.isEmpty()) {
+            return List.of();
+        }
+
+        CompressedBitmap matches;
+        if (match == LabelMatch.ALL) {
+            // Starting from the rarest label keeps every intermediate result small
+            bitmaps.sort(Comparator.comparingInt(CompressedBitmap::cardinality));
+            matches = bitmaps.getFirst();
+            for (int i = 1; i < bitmaps.size() && !matches.isEmpty(); i++) {
+                matches = matches.and(bitmaps.get(i));
+            }
+        } else {
+            matches = bitmaps.getFirst();
+            for (int i = 1; i < bitmaps.size(); i++) {
+                matches = matches.or(bitmaps.get(i));
+            }
+        }
+
+        if (completedFilter != null) {
+            matches = completedFilter ? matches.and(completed) : matches.andNot(completed);
+        }
+
+        List<TaskResponse> results = new ArrayList<>(matches.cardinality());
+        matches.forEach((ordinal) -> results.add(tasks.get(ordinal)));
+        results.sort(MANUAL_ORDER);
+        return results;
+    }
+
+    private void unindex(int ordinal) {
+        TaskResponse previous = tasks.get(ordinal);
+
+        for (String label : previous.labels()) {
+            CompressedBitmap bitmap = labels.get(label);
+            bitmap.remove(ordinal);
+            if (bitmap.isEmpty()) {
+                labels.remove(label);
+            }
+        }
+        completed.remove(ordinal);
+    }
+}
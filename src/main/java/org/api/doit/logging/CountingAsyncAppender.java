@@ -0,0 +1,34 @@
+package org.api.doit.logging;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Logback async appender that counts the events it drops.
+ * Configured with neverBlock, the parent silently discards an event when its queue is full;
+ * this subclass counts those events so the loss is visible as a metric.
+ */
+public class CountingAsyncAppender extends AsyncAppender {
+
+    private static final AtomicLong DROPPED = new AtomicLong();
+
+    /**
+     * Returns the number of events dropped since startup by every instance of this appender.
+     *
+     * @return the number of dropped events
+     */
+    public static long droppedEvents() {
+        return DROPPED.get();
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        // Approximate under contention: the queue may drain or fill between this check and the offer
+        if (getRemainingCapacity() == 0) {
+            DROPPED.incrementAndGet();
+        }
+        super.append(event);
+    }
+}
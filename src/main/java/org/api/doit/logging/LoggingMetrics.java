@@ -0,0 +1,18 @@
+package org.api.doit.logging;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes the number of log events dropped by the async appender.
+ */
+@Component
+public class LoggingMetrics {
+
+    public LoggingMetrics(MeterRegistry meterRegistry) {
+        FunctionCounter.builder("logging.async.dropped", CountingAsyncAppender.class, (type) -> CountingAsyncAppender.droppedEvents())
+                .description("Log events dropped because the async appender queue was full")
+                .register(meterRegistry);
+    }
+}
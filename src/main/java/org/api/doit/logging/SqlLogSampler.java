@@ -0,0 +1,79 @@
+package org.api.doit.logging;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Decides, once per request, whether the SQL statements it runs are logged.
+ * Rates are configured per route prefix; statements run outside a request use the default rate.
+ */
+public final class SqlLogSampler {
+
+    private static final ThreadLocal<Boolean> SAMPLED = new ThreadLocal<>();
+
+    private static volatile double defaultRate;
+    private static volatile Map<String, Double> routeRates = Map.of();
+
+    private SqlLogSampler() {}
+
+    /**
+     * Configures the sampling rates.
+     *
+     * @param rate the rate used for routes without a specific rate and outside requests
+     * @param rates comma separated prefix=rate pairs, e.g. "/api/v1/tasks=0.01,/api/v1/auth=0"
+     */
+    static void configure(double rate, String rates) {
+        Map<String, Double> parsed = new LinkedHashMap<>();
+
+        for (String pair : rates.split(",")) {
+            int separator = pair.indexOf('=');
+            if (separator > 0) {
+                parsed.put(pair.substring(0, separator).trim(), Double.parseDouble(pair.substring(separator + 1).trim()));
+            }
+        }
+
+        defaultRate = rate;
+        routeRates = parsed;
+    }
+
+    /**
+     * Draws the sampling decision for the request about to run on the current thread.
+     *
+     * @param path the request path
+     */
+    static void begin(String path) {
+        double rate = defaultRate;
+
+        // The first configured prefix matching the path wins
+        for (Map.Entry<String, Double> route : routeRates.entrySet()) {
+            if (path.startsWith(route.getKey())) {
+                rate = route.getValue();
+                break;
+            }
+        }
+
+        SAMPLED.set(rate > 0 && ThreadLocalRandom.current().nextDouble() < rate);
+    }
+
+    /**
+     * Clears the decision once the request is done.
+     */
+    static void end() {
+        SAMPLED.remove();
+    }
+
+    /**
+     * Returns whether statements on the current thread should be logged.
+     *
+     * @return true if the current request was sampled
+     */
+    static boolean isSampled() {
+        Boolean sampled = SAMPLED.get();
+        if (sampled != null) {
+            return sampled;
+        }
+        double rate = defaultRate;
+        return rate > 0 && ThreadLocalRandom.current().nextDouble() < rate;
+    }
+}
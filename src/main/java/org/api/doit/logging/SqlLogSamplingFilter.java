@@ -0,0 +1,44 @@
+package org.api.doit.logging;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Filter that draws the SQL logging sampling decision of each request before anything touches the database.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class SqlLogSamplingFilter extends OncePerRequestFilter {
+
+    /**
+     * Applies the configured sampling rates.
+     *
+     * @param defaultRate the rate for routes without a specific one
+     * @param routeRates comma separated prefix=rate pairs
+     */
+    public SqlLogSamplingFilter(@Value("${app.sql-log.sample-rate}") double defaultRate,
+                                @Value("${app.sql-log.route-sample-rates}") String routeRates) {
+        SqlLogSampler.configure(defaultRate, routeRates);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        SqlLogSampler.begin(request.getRequestURI());
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            SqlLogSampler.end();
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package org.api.doit.logging;
+
+import org.api.doit.timing.RequestPhase;
+import org.api.doit.timing.RequestTimings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * DataSource that times every statement executed through its connections.
+ * Statements slower than the threshold are always logged; the others only when the
+ * current request was sampled. Each entry carries the SQL, its bind-parameter count
+ * and its duration, and nothing is formatted unless it is actually logged.
+ * Connection acquisition and statement times are also added to the current request's timings.
+ * Connections and statements are JDK proxies, registered for the native image in NativeRuntimeHints.
+ * Calls that neither create nor execute a statement are forwarded without any other work.
+ */
+public class SqlLoggingDataSource extends DelegatingDataSource implements AutoCloseable {
+    private static final Logger sqlLog = LoggerFactory.getLogger("org.api.doit.sql");
+    private static final Logger slowSqlLog = LoggerFactory.getLogger("org.api.doit.sql.slow");
+
+    private final long slowThresholdNanos;
+
+    /**
+     * Wraps a DataSource.
+     *
+     * @param target the DataSource whose statements are logged
+     * @param slowThresholdMs duration above which a statement is always logged
+     */
+    public SqlLoggingDataSource(DataSource target, long slowThresholdMs) {
+        super(target);
+        this.slowThresholdNanos = slowThresholdMs * 1_000_000;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        long started = RequestTimings.start();
+        Connection connection;
+        try {
+            connection = obtainTargetDataSource().getConnection();
+        } finally {
+            RequestTimings.record(RequestPhase.CONNECTION_ACQUIRE, started);
+        }
+        return wrapConnection(connection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrapConnection(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    /**
+     * Closes the wrapped pool, if it can be closed, when the application shuts down.
+     */
+    @Override
+    public void close() throws Exception {
+        if (obtainTargetDataSource() instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    private Connection wrapConnection(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    Object result = invoke(connection, method, args);
+                    if (!(result instanceof Statement)) {
+                        return result;
+                    }
+
+                    // prepareStatement and prepareCall receive the SQL as their first argument
+                    String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : null;
+                    if (result instanceof CallableStatement statement) {
+                        return wrapStatement(statement, CallableStatement.class, sql);
+                    }
+                    if (result instanceof PreparedStatement statement) {
+                        return wrapStatement(statement, PreparedStatement.class, sql);
+                    }
+                    return wrapStatement((Statement) result, Statement.class, null);
+                });
+    }
+
+    private Object wrapStatement(Statement statement, Class<? extends Statement> type, String preparedSql) {
+        int[] parameterCount = {0};
+
+        return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    String name = method.getName();
+
+                    // setString(1, ...), setObject(2, ...): the highest index is the bind-parameter count
+                    if (name.startsWith("set") && args != null && args.length > 1 && args[0] instanceof Integer index) {
+                        parameterCount[0] = Math.max(parameterCount[0], index);
+                        return invoke(statement, method, args);
+                    }
+
+                    if (!name.startsWith("execute")) {
+                        return invoke(statement, method, args);
+                    }
+
+                    String sql = preparedSql != null ? preparedSql : args != null && args.length > 0 ? String.valueOf(args[0]) : null;
+                    long started = System.nanoTime();
+                    try {
+                        return invoke(statement, method, args);
+                    } finally {
+                        record(sql, parameterCount[0], System.nanoTime() - started);
+                    }
+                });
+    }
+
+    private void record(String sql, int parameterCount, long durationNanos) {
+        RequestTimings.recordStatement(sql, durationNanos);
+
+        if (durationNanos >= slowThresholdNanos) {
+            slowSqlLog.atWarn()
+                    .addKeyValue("durationMs", durationNanos / 1_000_000)
+                    .addKeyValue("params", parameterCount)
+                    .log(sql);
+        } else if (SqlLogSampler.isSampled()) {
+            sqlLog.atInfo()
+                    .addKeyValue("durationUs", durationNanos / 1_000)
+                    .addKeyValue("params", parameterCount)
+                    .log(sql);
+        }
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause(); // Rethrows the driver's SQLException as is
+        }
+    }
+}
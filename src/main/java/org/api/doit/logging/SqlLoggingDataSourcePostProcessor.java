@@ -0,0 +1,27 @@
+package org.api.doit.logging;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the application's DataSource in a SqlLoggingDataSource.
+ * Only the bean named "dataSource" is wrapped, so pools sitting behind a routing
+ * DataSource are not logged twice.
+ */
+@Component
+public class SqlLoggingDataSourcePostProcessor implements BeanPostProcessor {
+
+    @Value("${app.sql-log.slow-threshold-ms}")
+    private long slowThresholdMs;
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && "dataSource".equals(beanName)) {
+            return new SqlLoggingDataSource(dataSource, slowThresholdMs);
+        }
+        return bean;
+    }
+}
@@ -0,0 +1,40 @@
+package org.api.doit.outbox;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Stand-in publisher keeping the most recent messages in memory, used until a broker is wired in
+ * and to inspect the relayed events in tests. Declaring another OutboxPublisher as @Primary replaces it.
+ */
+@Component
+public class InMemoryOutboxPublisher implements OutboxPublisher {
+
+    private final Deque<OutboxMessage> messages = new ArrayDeque<>();
+
+    @Value("${app.outbox.memory-capacity}")
+    private int capacity;
+
+    @Override
+    public synchronized void publish(List<OutboxMessage> batch) {
+        for (OutboxMessage message : batch) {
+            if (messages.size() == capacity) {
+                messages.removeFirst();
+            }
+            messages.addLast(message);
+        }
+    }
+
+    /**
+     * Returns the most recently published messages, oldest first.
+     *
+     * @return a copy of the retained messages
+     */
+    public synchronized List<OutboxMessage> getMessages() {
+        return List.copyOf(messages);
+    }
+}
@@ -0,0 +1,24 @@
+package org.api.doit.outbox;
+
+import org.api.doit.entity.OutboxEvent;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A task change handed to the OutboxPublisher. The ID lets consumers discard the duplicates
+ * of an at-least-once delivery, but not order the changes: consumers keep the highest taskVersion
+ * seen per task and ignore older ones. DELETED and ARCHIVED carry no version and are final.
+ */
+public record OutboxMessage(long id, String type, UUID userId, UUID taskId, String payload, Long taskVersion, LocalDateTime createdAt) {
+    public static OutboxMessage from(OutboxEvent event) {
+        return new OutboxMessage(
+                event.getId(),
+                event.getType(),
+                event.getUserId(),
+                event.getTaskId(),
+                event.getPayload(),
+                event.getTaskVersion(),
+                event.getCreatedAt());
+    }
+}
@@ -0,0 +1,18 @@
+package org.api.doit.outbox;
+
+import java.util.List;
+
+/**
+ * Destination of the task changes drained from the outbox, such as a message broker.
+ * A batch counts as delivered once publish returns; throwing leaves the whole batch in the
+ * outbox to be published again, so implementations must tolerate duplicates downstream.
+ */
+public interface OutboxPublisher {
+
+    /**
+     * Publishes a batch of task changes.
+     *
+     * @param messages the changes, in outbox order
+     */
+    void publish(List<OutboxMessage> messages);
+}
@@ -0,0 +1,113 @@
+package org.api.doit.outbox;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.api.doit.entity.OutboxEvent;
+import org.api.doit.repository.OutboxEventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains the outbox to the OutboxPublisher in batches, in ID order.
+ * Each batch is locked, published and deleted in one transaction: a failed publish rolls the batch
+ * back into the outbox, so delivery is at least once. Locked rows are skipped, so every node can run a relay.
+ * IDs are assigned before commit, so neither they nor the publication order follow the order of the changes:
+ * consumers order the changes of a task by its version, see OutboxMessage.
+ */
+@Component
+@Lazy(false) // No bean depends on the relay, so it is created eagerly for its schedule to start
+@ConditionalOnProperty(name = "app.outbox.enabled", havingValue = "true")
+public class OutboxRelay {
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxPublisher outboxPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter publishedEvents;
+    private final Counter failedBatches;
+    private final Timer publishTime;
+    private final Timer deliveryLag;
+    private final AtomicLong lagMs = new AtomicLong();
+
+    @Value("${app.outbox.batch-size}")
+    private int batchSize;
+
+    @Value("${app.outbox.max-batches-per-run}")
+    private int maxBatchesPerRun;
+
+    /**
+     * Constructor for dependency injection.
+     *
+     * @param outboxEventRepository Repository of the outbox table.
+     * @param outboxPublisher Destination of the drained events.
+     * @param transactionTemplate Runs each batch in its own transaction.
+     * @param meterRegistry Registry where delivery metrics are published.
+     */
+    public OutboxRelay(final OutboxEventRepository outboxEventRepository,
+                       final OutboxPublisher outboxPublisher,
+                       final TransactionTemplate transactionTemplate,
+                       final MeterRegistry meterRegistry) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.outboxPublisher = outboxPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.publishedEvents = meterRegistry.counter("outbox.published");
+        this.failedBatches = meterRegistry.counter("outbox.publish.failures");
+        this.publishTime = meterRegistry.timer("outbox.publish.time");
+        this.deliveryLag = meterRegistry.timer("outbox.delivery.lag"); // From the task change to its publication
+        meterRegistry.gauge("outbox.lag.ms", lagMs); // Age of the oldest undelivered event
+    }
+
+    /**
+     * Relays batches until the outbox is drained or the per-run limit is reached, then refreshes the lag gauge.
+     */
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval-ms}")
+    public void relay() {
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            int relayed;
+            try {
+                relayed = transactionTemplate.execute((status) -> relayBatch());
+            } catch (RuntimeException e) {
+                failedBatches.increment();
+                log.warn("Could not relay outbox events, retrying on the next run", e);
+                break;
+            }
+
+            // A short batch means the outbox is drained
+            if (relayed < batchSize) {
+                break;
+            }
+        }
+
+        LocalDateTime oldest = transactionTemplate.execute((status) -> outboxEventRepository.findOldestCreatedAt());
+        lagMs.set(oldest == null ? 0 : Duration.between(oldest, LocalDateTime.now()).toMillis());
+    }
+
+    private int relayBatch() {
+        List<OutboxEvent> events = outboxEventRepository.lockBatch(batchSize);
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        List<OutboxMessage> messages = events.stream().map(OutboxMessage::from).toList();
+        publishTime.record(() -> outboxPublisher.publish(messages));
+
+        LocalDateTime now = LocalDateTime.now();
+        events.forEach((event) -> deliveryLag.record(Duration.between(event.getCreatedAt(), now)));
+
+        outboxEventRepository.deleteByIdIn(events.stream().map(OutboxEvent::getId).toList());
+        publishedEvents.increment(events.size());
+        return events.size();
+    }
+}
@@ -0,0 +1,55 @@
+package org.api.doit.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.api.doit.entity.OutboxEvent;
+import org.api.doit.event.TaskChangeType;
+import org.api.doit.event.TaskChangedEvent;
+import org.api.doit.repository.OutboxEventRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+
+/**
+ * Writes every task change into the outbox within the transaction that makes it,
+ * so a change is committed if and only if its event is.
+ */
+@Component
+@ConditionalOnProperty(name = "app.outbox.enabled", havingValue = "true")
+public class OutboxWriter {
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Constructor for dependency injection.
+     *
+     * @param outboxEventRepository Repository of the outbox table.
+     * @param objectMapper Serializes the task snapshots into the event payloads.
+     */
+    public OutboxWriter(final OutboxEventRepository outboxEventRepository, final ObjectMapper objectMapper) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Adds the change to the outbox. Runs before the commit, so the insert is flushed with the task's own statements.
+     *
+     * @param event the task change published by TaskService
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onTaskChanged(TaskChangedEvent event) {
+        String payload;
+        try {
+            payload = event.task() != null ? objectMapper.writeValueAsString(event.task()) : null;
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize task " + event.taskId() + " for the outbox", e);
+        }
+
+        // An archived copy has no version of its own; like a deletion, archiving is the task's last change
+        Long version = event.task() != null && event.type() != TaskChangeType.ARCHIVED ? event.task().version() : null;
+        outboxEventRepository.save(new OutboxEvent(event.type().name(), event.userId(), event.taskId(), payload, version, LocalDateTime.now()));
+    }
+}
@@ -0,0 +1,304 @@
+package org.api.doit.reminder;
+
+import jakarta.annotation.PreDestroy;
+import org.api.doit.dto.TaskReminderResponse;
+import org.api.doit.dto.TaskResponse;
+import org.api.doit.entity.Task;
+import org.api.doit.event.TaskChangeType;
+import org.api.doit.event.TaskChangedEvent;
+import org.api.doit.repository.SchedulerLeaseRepository;
+import org.api.doit.repository.TaskRepository;
+import org.api.doit.service.TaskWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Fires task reminders from an in-memory timing wheel.
+ * Only the reminders of a sliding window ahead of now are loaded, through an index-backed query,
+ * so the wheel holds a bounded number of entries whatever the number of future reminders.
+ * A reminder is marked as sent in the same statement that claims it, so it fires once even across
+ * restarts. The claim is a task update like any other: it takes the user's change sequence and is
+ * announced as an UPDATED change, so indexes, streams and sync clients see the new version. A database lease ensures a single instance loads and fires reminders at a time.
+ * Reminders missed while no instance was running are fired late, within the catch-up window, and
+ * reminders created on another instance inside the loaded window are picked up by the next refill.
+ */
+@Component
+@Lazy(false) // Nothing injects the scheduler; it has to exist from startup for its ticks to run
+@ConditionalOnProperty(name = "app.reminders.enabled", havingValue = "true")
+public class ReminderScheduler {
+    private static final Logger log = LoggerFactory.getLogger(ReminderScheduler.class);
+    private static final String LEASE_NAME = "reminders";
+    private static final UUID FIRST_ID = new UUID(0, 0); // Sorts before every task ID, so a page starting at a timestamp includes it
+
+    private final TaskRepository taskRepository;
+    private final SchedulerLeaseRepository schedulerLeaseRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskWriter taskWriter;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ReminderSink reminderSink;
+    private final String owner = UUID.randomUUID().toString();
+
+    // Guarded by this: the wheel, the reminders it holds and the loading cursor
+    private TimingWheel<UUID> wheel;
+    private final Map<UUID, ScheduledReminder> pending = new HashMap<>();
+    private final Map<UUID, ScheduledReminder> dueNow = new HashMap<>();
+    private LocalDateTime loadedUntil;
+
+    @Value("${app.reminders.tick-ms}")
+    private long tickMs;
+
+    @Value("${app.reminders.window-ms}")
+    private long windowMs;
+
+    @Value("${app.reminders.batch-size}")
+    private int batchSize;
+
+    @Value("${app.reminders.catch-up-ms}")
+    private long catchUpMs;
+
+    @Value("${app.reminders.lease-ms}")
+    private long leaseMs;
+
+    @Value("${app.reminders.refill-interval-ms}")
+    private long refillIntervalMs;
+
+    /**
+     * Constructor for dependency injection.
+     *
+     * @param taskRepository Task repository queried for upcoming reminders.
+     * @param schedulerLeaseRepository Repository of the lease electing the instance that fires reminders.
+     * @param transactionTemplate Runs each load and claim in its own transaction.
+     * @param taskWriter Takes the change sequence of the users whose reminders are claimed.
+     * @param eventPublisher Publishes the claimed tasks as updated.
+     * @param reminderSink Destination of the fired reminders.
+     */
+    public ReminderScheduler(final TaskRepository taskRepository,
+                             final SchedulerLeaseRepository schedulerLeaseRepository,
+                             final TransactionTemplate transactionTemplate,
+                             final TaskWriter taskWriter,
+                             final ApplicationEventPublisher eventPublisher,
+                             final ReminderSink reminderSink) {
+        this.taskRepository = taskRepository;
+        this.schedulerLeaseRepository = schedulerLeaseRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.taskWriter = taskWriter;
+        this.eventPublisher = eventPublisher;
+        this.reminderSink = reminderSink;
+    }
+
+    /**
+     * Renews the lease and loads the reminders of the next window into the wheel.
+     * The refill interval must be shorter than both the lease and the window.
+     */
+    @Scheduled(fixedDelayString = "${app.reminders.refill-interval-ms}")
+    public void refill() {
+        LocalDateTime now = LocalDateTime.now();
+        boolean leader = Integer.valueOf(1).equals(transactionTemplate.execute((status) ->
+                schedulerLeaseRepository.tryAcquire(LEASE_NAME, owner, now, now.plusNanos(leaseMs * 1_000_000))));
+
+        LocalDateTime cursor;
+        synchronized (this) {
+            if (!leader) {
+                if (wheel != null) {
+                    log.info("Reminder lease lost, another instance fires reminders now");
+                    wheel = null;
+                    pending.clear();
+                    dueNow.clear();
+                }
+                return;
+            }
+
+            if (wheel == null) {
+                log.info("Reminder lease acquired, catching up on reminders since {}", now.minusNanos(catchUpMs * 1_000_000));
+                wheel = new TimingWheel<>(tickMs, 60, toEpochMs(now));
+                loadedUntil = now.minusNanos(catchUpMs * 1_000_000);
+            }
+
+            // The last two intervals are read again for reminders committed by other instances since the previous refill
+            cursor = min(loadedUntil, now.minusNanos(2 * refillIntervalMs * 1_000_000));
+        }
+
+        LocalDateTime windowEnd = now.plusNanos(windowMs * 1_000_000);
+        UUID cursorId = FIRST_ID;
+        while (true) {
+            LocalDateTime fromAt = cursor;
+            UUID fromId = cursorId;
+
+            // Copied out inside the transaction, so the lazy user reference is never touched afterwards
+            List<ScheduledReminder> loaded = transactionTemplate.execute((status) -> taskRepository.findUpcomingReminders(fromAt, fromId, windowEnd, batchSize).stream()
+                    .map((task) -> new ScheduledReminder(task.getUser().getId(), task.getRemindAt(),
+                            new TaskReminderResponse(task.getId(), task.getTitle(), task.getDueAt(), task.getRemindAt())))
+                    .toList());
+
+            boolean done = loaded.size() < batchSize;
+            if (!done) {
+                // A full batch: continue right after the last reminder, including the others sharing its timestamp
+                ScheduledReminder last = loaded.getLast();
+                cursor = last.remindAt();
+                cursorId = last.payload().taskId();
+            }
+
+            Map<UUID, ScheduledReminder> due = new HashMap<>();
+            synchronized (this) {
+                if (wheel == null) {
+                    return;
+                }
+                loaded.forEach((reminder) -> schedule(reminder, due));
+                if (done) {
+                    loadedUntil = windowEnd;
+                }
+            }
+
+            if (!due.isEmpty()) {
+                fire(due);
+            }
+            if (done) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Advances the wheel and fires the reminders that came due.
+     */
+    @Scheduled(fixedRateString = "${app.reminders.tick-ms}")
+    public void tick() {
+        Map<UUID, ScheduledReminder> due = new HashMap<>();
+
+        synchronized (this) {
+            if (wheel == null) {
+                return;
+            }
+            due.putAll(dueNow);
+            dueNow.clear();
+            wheel.advance(System.currentTimeMillis(), (taskId) -> due.put(taskId, pending.remove(taskId)));
+        }
+
+        if (!due.isEmpty()) {
+            fire(due);
+        }
+    }
+
+    /**
+     * Schedules reminders of tasks created on this instance inside the already loaded window
+     * right away instead of at the next refill.
+     *
+     * @param event the task change published by TaskService
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onTaskChanged(TaskChangedEvent event) {
+        TaskResponse task = event.task();
+        if (event.type() != TaskChangeType.CREATED || task.remindAt() == null) {
+            return;
+        }
+
+        // Still bound to the committed transaction here, so reminders already due are left to the next tick
+        synchronized (this) {
+            if (wheel != null && task.remindAt().isBefore(loadedUntil)) {
+                schedule(new ScheduledReminder(event.userId(), task.remindAt(),
+                        new TaskReminderResponse(task.id(), task.title(), task.dueAt(), task.remindAt())), dueNow);
+            }
+        }
+    }
+
+    /**
+     * Releases the lease on shutdown so another instance takes over without waiting for it to expire.
+     */
+    @PreDestroy
+    public void shutdown() {
+        synchronized (this) {
+            if (wheel == null) {
+                return;
+            }
+            wheel = null;
+        }
+        transactionTemplate.execute((status) -> schedulerLeaseRepository.release(LEASE_NAME, owner));
+    }
+
+    /**
+     * Adds a reminder to the wheel, or to the due map if its time has already come. Called holding the lock.
+     */
+    private void schedule(ScheduledReminder reminder, Map<UUID, ScheduledReminder> due) {
+        UUID taskId = reminder.payload().taskId();
+
+        // Overlapping refills read the same reminders again
+        if (pending.containsKey(taskId)) {
+            return;
+        }
+
+        if (wheel.add(taskId, toEpochMs(reminder.remindAt()))) {
+            pending.put(taskId, reminder);
+        } else {
+            due.put(taskId, reminder);
+        }
+    }
+
+    private void fire(Map<UUID, ScheduledReminder> due) {
+        List<UUID> claimed;
+        try {
+            claimed = transactionTemplate.execute((status) -> claim(due));
+        } catch (RuntimeException e) {
+            // Unclaimed reminders stay unsent and are loaded again by the next refill
+            log.warn("Could not claim {} due reminders", due.size(), e);
+            return;
+        }
+
+        for (UUID taskId : claimed) {
+            ScheduledReminder reminder = due.get(taskId);
+            try {
+                reminderSink.deliver(reminder.userId(), reminder.payload());
+            } catch (RuntimeException e) {
+                log.warn("Could not deliver the reminder of task {}", taskId, e);
+            }
+        }
+    }
+
+    /**
+     * Claims the due reminders user by user, once the owners' sequences are all taken in one statement
+     * like every writer changing several users' tasks, and publishes each claimed task as updated. Runs inside the claiming transaction.
+     */
+    private List<UUID> claim(Map<UUID, ScheduledReminder> due) {
+        Map<UUID, List<UUID>> taskIdsByUser = new HashMap<>();
+        due.forEach((taskId, reminder) -> taskIdsByUser.computeIfAbsent(reminder.userId(), (userId) -> new ArrayList<>()).add(taskId));
+        Map<UUID, Long> changeSeqs = taskWriter.nextChangeSeqs(taskIdsByUser.keySet());
+
+        LocalDateTime now = LocalDateTime.now();
+        List<UUID> claimed = new ArrayList<>();
+        taskIdsByUser.forEach((userId, taskIds) -> {
+            long changeSeq = changeSeqs.get(userId);
+            for (Task task : taskRepository.claimReminders(taskIds, userId, now, changeSeq)) {
+                claimed.add(task.getId());
+                eventPublisher.publishEvent(new TaskChangedEvent(TaskChangeType.UPDATED, userId, task.getId(), TaskResponse.from(task)));
+            }
+        });
+        return claimed;
+    }
+
+    private static LocalDateTime min(LocalDateTime a, LocalDateTime b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    private static long toEpochMs(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private record ScheduledReminder(UUID userId, LocalDateTime remindAt, TaskReminderResponse payload) {
+    }
+}
@@ -0,0 +1,20 @@
+package org.api.doit.reminder;
+
+import org.api.doit.dto.TaskReminderResponse;
+
+import java.util.UUID;
+
+/**
+ * Destination of the reminders fired by the ReminderScheduler.
+ * Implementations must not block for long: they are called from the scheduler's tick.
+ */
+public interface ReminderSink {
+
+    /**
+     * Delivers a reminder to its user.
+     *
+     * @param userId the owner of the task
+     * @param reminder the reminder to deliver
+     */
+    void deliver(UUID userId, TaskReminderResponse reminder);
+}
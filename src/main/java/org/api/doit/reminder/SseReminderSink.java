@@ -0,0 +1,25 @@
+package org.api.doit.reminder;
+
+import org.api.doit.dto.TaskReminderResponse;
+import org.api.doit.stream.TaskStreamHub;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Delivers reminders as "reminder" events on the user's open task streams of this instance.
+ * Replace this bean with another ReminderSink to send them through a webhook or push service.
+ */
+@Component
+public class SseReminderSink implements ReminderSink {
+    private final TaskStreamHub taskStreamHub;
+
+    public SseReminderSink(TaskStreamHub taskStreamHub) {
+        this.taskStreamHub = taskStreamHub;
+    }
+
+    @Override
+    public void deliver(UUID userId, TaskReminderResponse reminder) {
+        taskStreamHub.sendToUser(userId, "reminder", reminder);
+    }
+}
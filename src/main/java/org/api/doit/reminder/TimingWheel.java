@@ -0,0 +1,152 @@
+package org.api.doit.reminder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel: adding and expiring an entry are O(1) whatever the number of pending entries.
+ * The first level has one bucket per tick; entries further away than its span go to an overflow level
+ * whose ticks are a whole revolution of the level below, and are cascaded down as their bucket comes due.
+ * Not thread-safe; callers serialize access.
+ *
+ * @param <T> the type of the scheduled items
+ */
+final class TimingWheel<T> {
+
+    private final long tickMs;
+    private final int wheelSize;
+    private final long intervalMs;
+    private final List<Entry<T>>[] buckets;
+    private final TimingWheel<T> root;
+    private long currentTime; // Start of the current tick, a multiple of tickMs
+    private TimingWheel<T> overflow;
+    private int size;
+
+    /**
+     * Creates a wheel starting at the given time.
+     *
+     * @param tickMs the duration of one bucket of the first level
+     * @param wheelSize the number of buckets per level
+     * @param startMs the current time in epoch milliseconds
+     */
+    TimingWheel(long tickMs, int wheelSize, long startMs) {
+        this(tickMs, wheelSize, startMs, null);
+    }
+
+    @SuppressWarnings("unchecked")
+    private TimingWheel(long tickMs, int wheelSize, long startMs, TimingWheel<T> root) {
+        this.tickMs = tickMs;
+        this.wheelSize = wheelSize;
+        this.intervalMs = tickMs * wheelSize;
+        this.buckets = new List[wheelSize];
+        this.root = root == null ? this : root;
+        this.currentTime = startMs - (startMs % tickMs);
+    }
+
+    /**
+     * Schedules an item.
+     *
+     * @param item the item
+     * @param expirationMs when the item is due, in epoch milliseconds
+     * @return false if the item is already due and was not added
+     */
+    boolean add(T item, long expirationMs) {
+        if (!place(new Entry<>(item, expirationMs))) {
+            return false;
+        }
+        size++;
+        return true;
+    }
+
+    /**
+     * Moves the wheel forward, handing every item that came due to the consumer.
+     *
+     * @param nowMs the current time in epoch milliseconds
+     * @param expired receives the due items, in order of their tick
+     */
+    void advance(long nowMs, Consumer<T> expired) {
+        while (currentTime + tickMs <= nowMs) {
+            currentTime += tickMs;
+
+            // Entries of the overflow bucket starting now are spread over this level first
+            if (overflow != null) {
+                overflow.advanceOverflow(currentTime);
+            }
+
+            int slot = slot(currentTime);
+            List<Entry<T>> bucket = buckets[slot];
+            if (bucket != null) {
+                buckets[slot] = null;
+                for (Entry<T> entry : bucket) {
+                    size--;
+                    expired.accept(entry.item);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the number of scheduled items.
+     *
+     * @return the number of items on every level
+     */
+    int size() {
+        return size;
+    }
+
+    private boolean place(Entry<T> entry) {
+        if (entry.expirationMs < currentTime + tickMs) {
+            return false;
+        }
+
+        if (entry.expirationMs < currentTime + intervalMs) {
+            int slot = slot(entry.expirationMs);
+            if (buckets[slot] == null) {
+                buckets[slot] = new ArrayList<>();
+            }
+            buckets[slot].add(entry);
+            return true;
+        }
+
+        if (overflow == null) {
+            overflow = new TimingWheel<>(intervalMs, wheelSize, currentTime, root);
+        }
+        return overflow.place(entry);
+    }
+
+    private void advanceOverflow(long nowMs) {
+        while (currentTime + tickMs <= nowMs) {
+            currentTime += tickMs;
+
+            if (overflow != null) {
+                overflow.advanceOverflow(currentTime);
+            }
+
+            int slot = slot(currentTime);
+            List<Entry<T>> bucket = buckets[slot];
+            if (bucket != null) {
+                buckets[slot] = null;
+                for (Entry<T> entry : bucket) {
+                    // The first level now covers the entry; an entry due in this very tick goes to its current bucket
+                    if (!root.place(entry)) {
+                        root.buckets[root.slot(root.currentTime)] = append(root.buckets[root.slot(root.currentTime)], entry);
+                    }
+                }
+            }
+        }
+    }
+
+    private List<Entry<T>> append(List<Entry<T>> bucket, Entry<T> entry) {
+        List<Entry<T>> result = bucket == null ? new ArrayList<>() : bucket;
+        result.add(entry);
+        return result;
+    }
+
+    private int slot(long timeMs) {
+        return (int) ((timeMs / tickMs) % wheelSize);
+    }
+
+    private record Entry<T>(T item, long expirationMs) {
+    }
+}
@@ -0,0 +1,59 @@
+package org.api.doit.repository;
+
+import org.api.doit.entity.ArchivedTask;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Repository interface for accessing ArchivedTask entities in the database.
+ * Extends CrudRepository to provide basic CRUD operations.
+ */
+public interface ArchivedTaskRepository extends CrudRepository<ArchivedTask, UUID> {
+
+    /**
+     * Retrieves all archived tasks for a specific user ordered by their creation date.
+     *
+     * @param userId the ID of the user whose archived tasks are to be retrieved
+     * @return a list of archived tasks for the specified user
+     */
+    List<ArchivedTask> findByUserIdOrderByCreatedAt(UUID userId);
+
+    /**
+     * Retrieves an archived task by its ID and the user ID.
+     *
+     * @param taskId the ID of the task to retrieve
+     * @param userId the ID of the user to whom the task belongs
+     * @return an Optional containing the archived task if found, or empty if not
+     */
+    Optional<ArchivedTask> findByIdAndUserId(UUID taskId, UUID userId);
+
+    /**
+     * Counts the archived tasks of a user.
+     *
+     * @param userId the ID of the user whose archived tasks are counted
+     * @return the number of archived tasks of the user
+     */
+    long countByUserId(UUID userId);
+
+    /**
+     * Copies the given tasks from the tasks table into the archive, along with the names of their labels.
+     *
+     * @param ids the IDs of the tasks to copy
+     * @param archivedAt the archiving time recorded on every copied row
+     * @return the number of rows copied
+     */
+    @Modifying
+    @Query(value = "INSERT INTO tasks_archive (id, title, description, completed, due_at, user_id, labels, created_at, updated_at, archived_at) " +
+            "SELECT t.id, t.title, t.description, t.completed, t.due_at, t.user_id, " +
+            "ARRAY(SELECT l.name FROM task_labels tl JOIN labels l ON l.id = tl.label_id WHERE tl.task_id = t.id ORDER BY l.name), " +
+            "t.created_at, t.updated_at, :archivedAt FROM tasks t WHERE t.id IN (:ids)",
+            nativeQuery = true)
+    int copyFromTasks(@Param("ids") List<UUID> ids, @Param("archivedAt") LocalDateTime archivedAt);
+}
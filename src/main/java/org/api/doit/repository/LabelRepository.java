@@ -0,0 +1,58 @@
+package org.api.doit.repository;
+
+import org.api.doit.entity.Label;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repository interface for accessing Label entities in the database.
+ * Extends CrudRepository to provide basic CRUD operations.
+ */
+public interface LabelRepository extends CrudRepository<Label, UUID> {
+
+    /**
+     * Retrieves the labels of a user with the given names.
+     *
+     * @param userId the ID of the user owning the labels
+     * @param names the lowercase names to look up
+     * @return the existing labels; unknown names are ignored
+     */
+    List<Label> findByUserIdAndNameIn(UUID userId, Collection<String> names);
+
+    /**
+     * Retrieves the labels of several users with any of the given names, in a single query.
+     *
+     * @param userIds the IDs of the users owning the labels
+     * @param names the lowercase names to look up
+     * @return the existing labels; unknown names are ignored
+     */
+    List<Label> findByUserIdInAndNameIn(Collection<UUID> userIds, Collection<String> names);
+
+    /**
+     * Creates a label unless the user already has one with this name, possibly created by a concurrent request.
+     *
+     * @param userId the ID of the user owning the label
+     * @param name the lowercase name of the label
+     * @return the number of rows inserted, 0 if the label already existed
+     */
+    @Modifying
+    @Query(value = "INSERT INTO labels (id, user_id, name) VALUES (gen_random_uuid(), :userId, :name) ON CONFLICT (user_id, name) DO NOTHING",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("userId") UUID userId, @Param("name") String name);
+
+    /**
+     * Removes the labels of the given tasks from the join table, before the tasks are bulk deleted.
+     *
+     * @param taskIds the IDs of the tasks
+     * @return the number of links removed
+     */
+    @Modifying
+    @Query(value = "DELETE FROM task_labels WHERE task_id IN (:taskIds)", nativeQuery = true)
+    int unlinkTasks(@Param("taskIds") Collection<UUID> taskIds);
+}
@@ -0,0 +1,45 @@
+package org.api.doit.repository;
+
+import org.api.doit.entity.OutboxEvent;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository interface for accessing OutboxEvent entities in the database.
+ * Extends CrudRepository to provide basic CRUD operations.
+ */
+public interface OutboxEventRepository extends CrudRepository<OutboxEvent, Long> {
+
+    /**
+     * Locks and returns the undelivered events with the lowest IDs.
+     * Rows locked by another relay are skipped, so several nodes can drain the outbox concurrently.
+     *
+     * @param limit the maximum number of events returned
+     * @return the events in ID order
+     */
+    @Query(value = "SELECT * FROM task_outbox ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<OutboxEvent> lockBatch(@Param("limit") int limit);
+
+    /**
+     * Deletes the given events in a single bulk statement.
+     *
+     * @param ids the IDs of the delivered events
+     * @return the number of events deleted
+     */
+    @Modifying
+    @Query("delete from OutboxEvent e where e.id in :ids")
+    int deleteByIdIn(@Param("ids") List<Long> ids);
+
+    /**
+     * Retrieves the creation time of the oldest undelivered event.
+     *
+     * @return the oldest creation time, or null if the outbox is empty
+     */
+    @Query("select min(e.createdAt) from OutboxEvent e")
+    LocalDateTime findOldestCreatedAt();
+}
@@ -0,0 +1,47 @@
+package org.api.doit.repository;
+
+import org.api.doit.entity.SchedulerLease;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+
+/**
+ * Repository interface for accessing SchedulerLease entities in the database.
+ * Extends CrudRepository to provide basic CRUD operations.
+ */
+public interface SchedulerLeaseRepository extends CrudRepository<SchedulerLease, String> {
+
+    /**
+     * Acquires or renews a lease in a single statement. The lease is taken when nobody holds it,
+     * when this owner already holds it, or when the previous holder let it expire.
+     *
+     * @param name the job the lease is for
+     * @param owner the instance asking for the lease
+     * @param now the current time
+     * @param expiresAt when the lease expires unless renewed
+     * @return 1 if the caller holds the lease, 0 if another instance does
+     */
+    @Modifying
+    @Query(value = "INSERT INTO scheduler_leases (name, owner, expires_at) VALUES (:name, :owner, :expiresAt) " +
+            "ON CONFLICT (name) DO UPDATE SET owner = EXCLUDED.owner, expires_at = EXCLUDED.expires_at " +
+            "WHERE scheduler_leases.owner = EXCLUDED.owner OR scheduler_leases.expires_at < :now",
+            nativeQuery = true)
+    int tryAcquire(@Param("name") String name,
+                   @Param("owner") String owner,
+                   @Param("now") LocalDateTime now,
+                   @Param("expiresAt") LocalDateTime expiresAt);
+
+    /**
+     * Releases a lease held by the given owner, so another instance can take it without waiting for expiry.
+     *
+     * @param name the job the lease is for
+     * @param owner the instance releasing the lease
+     * @return the number of leases released
+     */
+    @Modifying
+    @Query("delete from SchedulerLease l where l.name = :name and l.owner = :owner")
+    int release(@Param("name") String name, @Param("owner") String owner);
+}
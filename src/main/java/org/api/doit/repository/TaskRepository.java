@@ -1,27 +1,57 @@
 package org.api.doit.repository;
 
+import jakarta.persistence.LockModeType;
 import org.api.doit.entity.Task;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 /**
  * Repository interface for accessing Task entities in the database.
- * Extends CrudRepository to provide basic CRUD operations.
+ * Extends CrudRepository to provide basic CRUD operations,
+ * and TaskSliceRepository for the dynamic filters.
  */
-public interface TaskRepository extends CrudRepository<Task, Long> {
+public interface TaskRepository extends CrudRepository<Task, Long>, TaskSliceRepository {
 
     /**
-     * Retrieves all tasks for a specific user ordered by their creation date.
+     * Retrieves all tasks for a specific user in their manual order.
+     * Tasks without a position come last, ordered by their creation date.
      *
      * @param userId the ID of the user whose tasks are to be retrieved
      * @return a list of tasks for the specified user
      */
-    List<Task> findByUserIdOrderByCreatedAt(UUID userId);
+    List<Task> findByUserIdOrderByPositionAscCreatedAtAsc(UUID userId);
 
-    List<Task> findByUserIdAndCompletedOrderByCreatedAt(UUID userId, boolean completed);
+    List<Task> findByUserIdAndCompletedOrderByPositionAscCreatedAtAsc(UUID userId, boolean completed);
+
+    /**
+     * Locks and returns all tasks of a user in their manual order, so their positions can be rewritten.
+     *
+     * @param userId the ID of the user whose tasks are locked
+     * @return the user's tasks, tasks without a position last
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select t from Task t where t.user.id = :userId order by t.position asc nulls last, t.createdAt asc")
+    List<Task> lockByUserIdInPositionOrder(@Param("userId") UUID userId);
+
+    /**
+     * Retrieves the highest position among the tasks of each of several users in one statement,
+     * every user's read from the end of the position index.
+     *
+     * @param userIds the IDs of the users whose tasks are considered
+     * @return one [user ID, last position] pair per user, the position being null if none of the user's tasks has one
+     */
+    @Query(value = "SELECT u.id, (SELECT max(t.position) FROM tasks t WHERE t.user_id = u.id) FROM users u WHERE u.id IN (:userIds)",
+            nativeQuery = true)
+    List<Object[]> findLastPositions(@Param("userIds") Collection<UUID> userIds);
 
     /**
      * Retrieves a task by its ID and the user ID.
@@ -31,4 +61,143 @@ public interface TaskRepository extends CrudRepository<Task, Long> {
      * @return an Optional containing the task if found, or empty if not
      */
     Optional<Task> findByIdAndUserId(UUID taskId, UUID userId);
+
+    /**
+     * Retrieves the tasks of a user among the given IDs, in a single query.
+     *
+     * @param userId the ID of the user to whom the tasks belong
+     * @param ids the IDs of the tasks to retrieve
+     * @return the user's tasks among the IDs, in no particular order
+     */
+    List<Task> findByUserIdAndIdIn(UUID userId, Collection<UUID> ids);
+
+    /**
+     * Retrieves the tasks of a user created or updated after the given change sequence, oldest change first.
+     *
+     * @param userId the ID of the user whose tasks are to be retrieved
+     * @param changeSeq the exclusive lower bound of the user's change sequence
+     * @return a list of changed tasks for the specified user
+     */
+    List<Task> findByUserIdAndChangeSeqGreaterThanOrderByChangeSeq(UUID userId, long changeSeq);
+
+    /**
+     * Counts all tasks of a user.
+     *
+     * @param userId the ID of the user whose tasks are counted
+     * @return the number of tasks of the user
+     */
+    long countByUserId(UUID userId);
+
+    /**
+     * Counts the tasks of a user with the given completion status.
+     *
+     * @param userId the ID of the user whose tasks are counted
+     * @param completed the completion status to match
+     * @return the number of matching tasks
+     */
+    long countByUserIdAndCompleted(UUID userId, boolean completed);
+
+    /**
+     * Retrieves the owners of the oldest completed tasks last updated before the cutoff, without locking anything,
+     * so the archiver can lock their rows before the tasks' like every other task writer.
+     *
+     * @param cutoff the moment before which completed tasks are archived
+     * @param limit the number of candidate tasks considered
+     * @return the IDs of the candidates' owners, sorted
+     */
+    @Query(value = "SELECT DISTINCT user_id FROM (SELECT user_id FROM tasks WHERE completed = true AND updated_at < :cutoff " +
+            "ORDER BY updated_at LIMIT :limit) candidates ORDER BY user_id",
+            nativeQuery = true)
+    List<UUID> findArchivableUserIds(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+
+    /**
+     * Locks and returns the IDs of the given users' oldest completed tasks last updated before the cutoff.
+     * Rows locked by another archiver are skipped, so several nodes can archive concurrently.
+     *
+     * @param cutoff the moment before which completed tasks are archived
+     * @param userIds the owners whose tasks may be archived
+     * @param limit the maximum number of IDs returned
+     * @return the IDs of the tasks to archive
+     */
+    @Query(value = "SELECT id FROM tasks WHERE completed = true AND updated_at < :cutoff AND user_id IN (:userIds) " +
+            "ORDER BY updated_at LIMIT :limit FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<UUID> lockArchivableIds(@Param("cutoff") LocalDateTime cutoff, @Param("userIds") Collection<UUID> userIds, @Param("limit") int limit);
+
+    /**
+     * Deletes the given tasks in a single bulk statement.
+     *
+     * @param ids the IDs of the tasks to delete
+     * @return the number of tasks deleted
+     */
+    @Modifying
+    @Query("delete from Task t where t.id in :ids")
+    int deleteByIdIn(@Param("ids") List<UUID> ids);
+
+    /**
+     * Retrieves a page of the unsent reminders of open tasks falling in a time window, in (remind_at, id) order.
+     * Pages are keyed on the last reminder of the previous page, so reminders sharing a timestamp are never skipped,
+     * however many there are. Backed by the (reminder_sent_at, remind_at, id) index, so the cost depends on the window, not the table.
+     *
+     * @param fromAt the reminder time of the last reminder already read, or the start of the window
+     * @param fromId the task ID of the last reminder already read, or the nil UUID to include the start of the window
+     * @param to the exclusive end of the window
+     * @param limit the maximum number of tasks returned
+     * @return the tasks whose reminder falls in the window after the given one
+     */
+    @Query(value = "SELECT * FROM tasks WHERE reminder_sent_at IS NULL AND (remind_at, id) > (:fromAt, :fromId) AND remind_at < :to " +
+            "AND completed = false ORDER BY remind_at, id LIMIT :limit",
+            nativeQuery = true)
+    List<Task> findUpcomingReminders(@Param("fromAt") LocalDateTime fromAt, @Param("fromId") UUID fromId, @Param("to") LocalDateTime to,
+                                     @Param("limit") int limit);
+
+    /**
+     * Marks a user's reminders as sent, skipping tasks that were deleted, completed or already reminded meanwhile.
+     * Stamps the claimed tasks with the user's change sequence, as every other task update does.
+     *
+     * @param ids the IDs of the user's tasks whose reminder is due
+     * @param userId the ID of the user owning the tasks
+     * @param sentAt the moment the reminders are sent
+     * @param changeSeq the user's change sequence number taken for this claim
+     * @return the tasks whose reminder this call claimed, after the update
+     */
+    @Query(value = "UPDATE tasks SET reminder_sent_at = :sentAt, change_seq = :changeSeq, version = version + 1 " +
+            "WHERE id IN (:ids) AND user_id = :userId AND reminder_sent_at IS NULL AND completed = false RETURNING *",
+            nativeQuery = true)
+    List<Task> claimReminders(@Param("ids") Collection<UUID> ids, @Param("userId") UUID userId, @Param("sentAt") LocalDateTime sentAt,
+                              @Param("changeSeq") long changeSeq);
+
+    /**
+     * Flips the completion status of a task in a single statement, so concurrent toggles never cancel out
+     * and the row is only locked for the statement, not for a read-modify-write.
+     * A copy of the task already in the persistence context would be returned instead of the updated row, so callers evict it first.
+     *
+     * @param id the ID of the task
+     * @param userId the ID of the user to whom the task belongs
+     * @param updatedAt the new modification time of the task
+     * @param changeSeq the owner's change sequence of the update
+     * @return the task after the update, or empty if the user has no such task
+     */
+    @Query(value = "UPDATE tasks SET completed = NOT completed, updated_at = :updatedAt, change_seq = :changeSeq, version = version + 1 " +
+            "WHERE id = :id AND user_id = :userId RETURNING *",
+            nativeQuery = true)
+    Optional<Task> toggleCompleted(@Param("id") UUID id, @Param("userId") UUID userId, @Param("updatedAt") LocalDateTime updatedAt,
+                                   @Param("changeSeq") long changeSeq);
+
+    /**
+     * Sets the completion status of a task in a single statement, unless it already has it.
+     * A copy of the task already in the persistence context would be returned instead of the updated row, so callers evict it first.
+     *
+     * @param id the ID of the task
+     * @param userId the ID of the user to whom the task belongs
+     * @param completed the target completion status
+     * @param updatedAt the new modification time of the task
+     * @param changeSeq the owner's change sequence of the update
+     * @return the task after the update, or empty if the user has no such task or it already had the status
+     */
+    @Query(value = "UPDATE tasks SET completed = :completed, updated_at = :updatedAt, change_seq = :changeSeq, version = version + 1 " +
+            "WHERE id = :id AND user_id = :userId AND completed <> :completed RETURNING *",
+            nativeQuery = true)
+    Optional<Task> setCompleted(@Param("id") UUID id, @Param("userId") UUID userId, @Param("completed") boolean completed,
+                                @Param("updatedAt") LocalDateTime updatedAt, @Param("changeSeq") long changeSeq);
 }
@@ -0,0 +1,22 @@
+package org.api.doit.repository;
+
+import org.api.doit.entity.Task;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Repository fragment reading tasks matching a specification one slice at a time.
+ */
+public interface TaskSliceRepository {
+
+    /**
+     * Retrieves one slice of the tasks matching a specification.
+     * Unlike a page, a slice is not counted: one extra row is read to know whether another slice follows.
+     *
+     * @param specification the criteria the tasks must match
+     * @param pageable the page number, size and sort of the slice
+     * @return the tasks of the slice
+     */
+    Slice<Task> findSlice(Specification<Task> specification, Pageable pageable);
+}
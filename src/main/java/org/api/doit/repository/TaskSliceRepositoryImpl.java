@@ -0,0 +1,49 @@
+package org.api.doit.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import org.api.doit.entity.Task;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.List;
+
+/**
+ * Criteria API implementation of {@link TaskSliceRepository}, picked up by Spring Data through its Impl suffix.
+ */
+class TaskSliceRepositoryImpl implements TaskSliceRepository {
+    private final EntityManager entityManager;
+
+    /**
+     * Constructor for dependency injection.
+     *
+     * @param entityManager EntityManager used to build and run the criteria queries.
+     */
+    TaskSliceRepositoryImpl(final EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public Slice<Task> findSlice(Specification<Task> specification, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Task> query = cb.createQuery(Task.class);
+        Root<Task> root = query.from(Task.class);
+
+        query.select(root)
+                .where(specification.toPredicate(root, query, cb))
+                .orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+
+        List<Task> tasks = entityManager.createQuery(query)
+                .setFirstResult(Math.toIntExact(pageable.getOffset())) // Callers cap the offset; never silently wraps
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList();
+
+        boolean hasNext = tasks.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? tasks.subList(0, pageable.getPageSize()) : tasks, pageable, hasNext);
+    }
+}
@@ -0,0 +1,104 @@
+package org.api.doit.repository;
+
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.api.doit.entity.Task;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Building blocks of the dynamic task filters. Each criterion returns null when its value is absent,
+ * which Specification.and ignores, so a filter renders only the predicates it actually uses.
+ */
+public final class TaskSpecifications {
+
+    private TaskSpecifications() {}
+
+    /**
+     * Restricts the tasks to a user; every filter starts with it so the user_id indexes apply.
+     *
+     * @param userId the ID of the owner
+     * @return the specification
+     */
+    public static Specification<Task> ownedBy(UUID userId) {
+        return (root, query, cb) -> cb.equal(root.get("user").get("id"), userId);
+    }
+
+    /**
+     * Restricts the tasks to a completion status.
+     *
+     * @param completed the status, or null for both
+     * @return the specification, or null
+     */
+    public static Specification<Task> completed(Boolean completed) {
+        return completed == null ? null : (root, query, cb) -> cb.equal(root.get("completed"), completed);
+    }
+
+    /**
+     * Restricts a timestamp to a range, inclusive of its lower bound and exclusive of its upper bound.
+     *
+     * @param property the timestamp property
+     * @param from the lower bound, or null
+     * @param to the upper bound, or null
+     * @return the specification, or null when both bounds are absent
+     */
+    public static Specification<Task> between(String property, LocalDateTime from, LocalDateTime to) {
+        if (from == null && to == null) {
+            return null;
+        }
+
+        return (root, query, cb) -> {
+            if (from == null) {
+                return cb.lessThan(root.get(property), to);
+            }
+            if (to == null) {
+                return cb.greaterThanOrEqualTo(root.get(property), from);
+            }
+            return cb.and(cb.greaterThanOrEqualTo(root.get(property), from), cb.lessThan(root.get(property), to));
+        };
+    }
+
+    /**
+     * Restricts the tasks to titles starting with a prefix, case-sensitively.
+     * LIKE wildcards in the prefix are escaped, so they match literally.
+     *
+     * @param prefix the prefix, or null
+     * @return the specification, or null
+     */
+    public static Specification<Task> titleStartsWith(String prefix) {
+        if (prefix == null) {
+            return null;
+        }
+
+        String pattern = prefix.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+        return (root, query, cb) -> cb.like(root.get("title"), pattern, '\\');
+    }
+
+    /**
+     * Restricts the tasks to those sorting after a given one, in the order of a property followed by the ID.
+     * Follows the database's null ordering: nulls come last in ascending order and first in descending order.
+     *
+     * @param property the sort property
+     * @param ascending whether the property is sorted in ascending order; the ID always is
+     * @param value the property value of the task to continue after, possibly null
+     * @param id the ID of the task to continue after
+     * @param <T> the type of the property
+     * @return the specification
+     */
+    public static <T extends Comparable<? super T>> Specification<Task> after(String property, boolean ascending, T value, UUID id) {
+        return (root, query, cb) -> {
+            Path<T> path = root.get(property);
+            Predicate sameValue = value == null ? cb.isNull(path) : cb.equal(path, value);
+            Predicate tie = cb.and(sameValue, cb.greaterThan(root.get("id"), id));
+
+            if (value == null) {
+                // Nulls are the tail of an ascending order and the head of a descending one
+                return ascending ? tie : cb.or(tie, cb.isNotNull(path));
+            }
+            Predicate beyond = ascending ? cb.or(cb.greaterThan(path, value), cb.isNull(path)) : cb.lessThan(path, value);
+            return cb.or(beyond, tie);
+        };
+    }
+}
@@ -0,0 +1,53 @@
+package org.api.doit.repository;
+
+import org.api.doit.entity.TaskTombstone;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repository interface for accessing TaskTombstone entities in the database.
+ * Extends CrudRepository to provide basic CRUD operations.
+ */
+public interface TaskTombstoneRepository extends CrudRepository<TaskTombstone, UUID> {
+
+    /**
+     * Retrieves the tombstones of a user's tasks deleted after the given change sequence, oldest first.
+     *
+     * @param userId the ID of the user whose deletions are to be retrieved
+     * @param changeSeq the exclusive lower bound of the user's change sequence
+     * @return a list of tombstones for the specified user
+     */
+    List<TaskTombstone> findByUserIdAndChangeSeqGreaterThanOrderByChangeSeq(UUID userId, long changeSeq);
+
+    /**
+     * Leaves a tombstone for each of the given tasks, stamped with its owner's current change sequence,
+     * in a single statement. Runs before the tasks are deleted, in the transaction that took the sequences.
+     *
+     * @param ids the IDs of the tasks about to be deleted
+     * @param deletedAt the deletion time recorded on every tombstone
+     * @return the number of tombstones inserted
+     */
+    @Modifying
+    @Query(value = "INSERT INTO task_tombstones (task_id, user_id, deleted_at, change_seq) " +
+            "SELECT t.id, t.user_id, :deletedAt, u.change_seq FROM tasks t JOIN users u ON u.id = t.user_id WHERE t.id IN (:ids)",
+            nativeQuery = true)
+    int insertForTasks(@Param("ids") List<UUID> ids, @Param("deletedAt") LocalDateTime deletedAt);
+
+    /**
+     * Removes every tombstone older than the given cutoff in a single bulk statement.
+     *
+     * @param cutoff the moment before which tombstones are discarded
+     * @return the number of tombstones removed
+     */
+    @Modifying
+    @Transactional
+    @Query("delete from TaskTombstone t where t.deletedAt < :cutoff")
+    int deleteByDeletedAtBefore(@Param("cutoff") LocalDateTime cutoff);
+}
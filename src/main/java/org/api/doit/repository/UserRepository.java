@@ -1,8 +1,12 @@
 package org.api.doit.repository;
 
 import org.api.doit.entity.User;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -23,4 +27,37 @@ public interface UserRepository extends CrudRepository<User, Long> {
     Optional<User> findById(UUID id);
 
     boolean existsByUsername(String username);
+
+    /**
+     * Increments the change sequence of a user. The row stays locked until the transaction ends,
+     * so the user's changes commit in the order of their sequence numbers.
+     *
+     * @param userId the ID of the user whose tasks are about to change
+     * @return the new change sequence
+     */
+    @Query(value = "UPDATE users SET change_seq = change_seq + 1 WHERE id = :userId RETURNING change_seq", nativeQuery = true)
+    long incrementChangeSeq(@Param("userId") UUID userId);
+
+    /**
+     * Increments the change sequence of several users in one statement. The rows are locked in ID order,
+     * as the database sorts UUIDs, so transactions changing the tasks of several users cannot deadlock,
+     * and stay locked until the transaction ends.
+     *
+     * @param userIds the IDs of the users whose tasks are about to change
+     * @return one [user ID, new change sequence] pair per user
+     */
+    @Query(value = "UPDATE users u SET change_seq = u.change_seq + 1 " +
+            "FROM (SELECT id FROM users WHERE id IN (:userIds) ORDER BY id FOR UPDATE) locked " +
+            "WHERE u.id = locked.id RETURNING u.id, u.change_seq",
+            nativeQuery = true)
+    List<Object[]> incrementChangeSeqs(@Param("userIds") Collection<UUID> userIds);
+
+    /**
+     * Retrieves the change sequence of a user.
+     *
+     * @param userId the ID of the user
+     * @return the change sequence of the user's last committed change
+     */
+    @Query("select u.changeSeq from User u where u.id = :userId")
+    long findChangeSeq(@Param("userId") UUID userId);
 }
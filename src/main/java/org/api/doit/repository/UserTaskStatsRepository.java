@@ -0,0 +1,41 @@
+package org.api.doit.repository;
+
+import org.api.doit.entity.UserTaskStats;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+
+import java.util.UUID;
+
+/**
+ * Repository interface for accessing UserTaskStats entities in the database.
+ * Extends CrudRepository to provide basic CRUD operations.
+ */
+public interface UserTaskStatsRepository extends CrudRepository<UserTaskStats, UUID> {
+
+    /**
+     * Atomically adds the given deltas to a user's counters.
+     *
+     * @param userId the ID of the user whose counters are adjusted
+     * @param total the delta applied to the total number of tasks
+     * @param completed the delta applied to the number of completed tasks
+     * @return the number of rows updated, 0 if the user has no counters row yet
+     */
+    @Modifying
+    @Query("update UserTaskStats s set s.totalCount = s.totalCount + :total, s.completedCount = s.completedCount + :completed where s.userId = :userId")
+    int applyDelta(@Param("userId") UUID userId, @Param("total") long total, @Param("completed") long completed);
+
+    /**
+     * Inserts the counters row of a user unless another transaction already created it.
+     *
+     * @param userId the ID of the user
+     * @param total the total number of tasks of the user
+     * @param completed the number of completed tasks of the user
+     * @return the number of rows inserted, 0 if the row already existed
+     */
+    @Modifying
+    @Query(value = "INSERT INTO user_task_stats (user_id, total_count, completed_count) VALUES (:userId, :total, :completed) ON CONFLICT (user_id) DO NOTHING",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("userId") UUID userId, @Param("total") long total, @Param("completed") long completed);
+}
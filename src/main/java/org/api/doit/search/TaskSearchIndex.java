@@ -0,0 +1,54 @@
+package org.api.doit.search;
+
+import org.api.doit.dto.TaskResponse;
+import org.api.doit.event.TaskChangedEvent;
+import org.api.doit.index.UserIndexes;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * In-process full-text index over the tasks of each user.
+ * A user's index is built on their first search and then kept current, see UserIndexes.
+ */
+@Component
+public class TaskSearchIndex {
+
+    private final UserIndexes<UserTaskIndex> indexes = new UserIndexes<>(UserTaskIndex::new);
+
+    @Value("${app.search.max-results}")
+    private int maxResults;
+
+    /**
+     * Searches a user's tasks for the given query, building the user's index if needed.
+     *
+     * @param userId the ID of the user whose tasks are searched
+     * @param query the free-text query; every word must prefix a word of the title or description
+     * @param loader supplies all tasks of the user when the index has to be built
+     * @return the matching tasks, at most the configured maximum
+     */
+    public List<TaskResponse> search(UUID userId, String query, Supplier<List<TaskResponse>> loader) {
+        Set<String> tokens = UserTaskIndex.tokenize(query);
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+
+        return indexes.get(userId, loader).search(tokens, maxResults);
+    }
+
+    /**
+     * Applies a committed task change to the owner's index, if it is loaded.
+     *
+     * @param event the task change published by TaskService
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onTaskChanged(TaskChangedEvent event) {
+        indexes.apply(event);
+    }
+}
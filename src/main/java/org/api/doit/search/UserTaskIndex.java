@@ -0,0 +1,195 @@
+package org.api.doit.search;
+
+import org.api.doit.dto.TaskResponse;
+import org.api.doit.index.UserIndex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Inverted index over the titles and descriptions of a single user's tasks.
+ * Every task gets a dense ordinal; each term maps to a sorted array of the ordinals
+ * containing it. Deleted tasks leave a hole that is skipped when reading results,
+ * and their IDs are kept so a late update does not index them again.
+ * All methods are synchronized, so an index can be updated while it is searched.
+ */
+final class UserTaskIndex implements UserIndex {
+
+    private final List<TaskResponse> documents = new ArrayList<>(); // Ordinal -> task, null once deleted
+    private final Map<UUID, Integer> ordinals = new HashMap<>();
+    private final TreeMap<String, Postings> postings = new TreeMap<>(); // Sorted so prefixes are a contiguous range
+    private final Set<UUID> removed = new HashSet<>(); // Removed tasks, whatever late update still arrives
+    private int deletedCount;
+
+    UserTaskIndex(List<TaskResponse> tasks) {
+        tasks.forEach(this::add);
+    }
+
+    @Override
+    public synchronized void upsert(TaskResponse task) {
+        if (removed.contains(task.id())) {
+            return;
+        }
+
+        Integer ordinal = ordinals.get(task.id());
+        if (ordinal == null) {
+            add(task);
+            return;
+        }
+
+        TaskResponse previous = documents.get(ordinal);
+        if (previous.version() > task.version()) {
+            return; // A snapshot older than the indexed one, delivered late
+        }
+        if (Objects.equals(previous.title(), task.title()) && Objects.equals(previous.description(), task.description())) {
+            // Same text, only the snapshot returned to clients changes
+            documents.set(ordinal, task);
+            return;
+        }
+
+        unindex(task.id());
+        add(task);
+    }
+
+    @Override
+    public synchronized void remove(UUID taskId) {
+        removed.add(taskId);
+        unindex(taskId);
+    }
+
+    /**
+     * Deletions and text changes leave holes in the ordinals, and removals IDs to remember,
+     * so many of them call for a rebuild.
+     */
+    @Override
+    public synchronized boolean isFragmented() {
+        return (deletedCount > 1024 && deletedCount > documents.size() / 2) || removed.size() > Math.max(1024, documents.size());
+    }
+
+    /**
+     * Finds the tasks containing every query token, each token matched as a prefix of a term.
+     *
+     * @param tokens the tokens of the query, as produced by {@link #tokenize(String)}
+     * @param limit the maximum number of results
+     * @return the matching tasks in indexing order
+     */
+    synchronized List<TaskResponse> search(Set<String> tokens, int limit) {
+        BitSet matches = null;
+
+        for (String token : tokens) {
+            BitSet tokenMatches = new BitSet(documents.size());
+
+            // Every term starting with the token sorts between the token and the token followed by the highest char
+            for (Postings termPostings : postings.subMap(token, true, token + Character.MAX_VALUE, true).values()) {
+                termPostings.addTo(tokenMatches);
+            }
+
+            if (matches == null) {
+                matches = tokenMatches;
+            } else {
+                matches.and(tokenMatches);
+            }
+
+            if (matches.isEmpty()) {
+                return List.of();
+            }
+        }
+
+        if (matches == null) {
+            return List.of();
+        }
+
+        List<TaskResponse> results = new ArrayList<>(Math.min(limit, matches.cardinality()));
+        for (int ordinal = matches.nextSetBit(0); ordinal >= 0 && results.size() < limit; ordinal = matches.nextSetBit(ordinal + 1)) {
+            TaskResponse task = documents.get(ordinal);
+            if (task != null) {
+                results.add(task);
+            }
+        }
+        return results;
+    }
+
+    private void unindex(UUID taskId) {
+        Integer ordinal = ordinals.remove(taskId);
+
+        if (ordinal != null) {
+            documents.set(ordinal, null);
+            deletedCount++;
+        }
+    }
+
+    private void add(TaskResponse task) {
+        int ordinal = documents.size();
+        documents.add(task);
+        ordinals.put(task.id(), ordinal);
+
+        for (String term : tokenize(task.title())) {
+            postings.computeIfAbsent(term, (t) -> new Postings()).append(ordinal);
+        }
+        for (String term : tokenize(task.description())) {
+            postings.computeIfAbsent(term, (t) -> new Postings()).append(ordinal);
+        }
+    }
+
+    /**
+     * Splits text into distinct lowercase terms made of letters and digits.
+     *
+     * @param text the text to tokenize, possibly null
+     * @return the distinct terms in order of appearance
+     */
+    static Set<String> tokenize(String text) {
+        Set<String> terms = new LinkedHashSet<>();
+        if (text == null) {
+            return terms;
+        }
+
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                terms.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * Growable, sorted array of ordinals. Ordinals are only ever appended in increasing order.
+     */
+    private static final class Postings {
+        private int[] ordinals = new int[4];
+        private int size;
+
+        void append(int ordinal) {
+            // A term repeated in the title and description of the same task is stored once
+            if (size > 0 && ordinals[size - 1] == ordinal) {
+                return;
+            }
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size * 2);
+            }
+            ordinals[size++] = ordinal;
+        }
+
+        void addTo(BitSet bits) {
+            for (int i = 0; i < size; i++) {
+                bits.set(ordinals[i]);
+            }
+        }
+    }
+}
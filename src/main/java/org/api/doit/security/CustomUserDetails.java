@@ -22,28 +22,32 @@ public class CustomUserDetails implements UserDetails {
 
     private final String password; // The user's password.
 
+    private final List<GrantedAuthority> authorities; // The roles granted to the user.
+
     /**
      * Constructor to initialize the CustomUserDetails with user data.
      *
      * @param id the unique identifier for the user.
      * @param username the username for authentication.
      * @param password the password for authentication.
+     * @param authorities the roles granted to the user.
      */
-    public CustomUserDetails(UUID id, String username, String password) {
+    public CustomUserDetails(UUID id, String username, String password, List<GrantedAuthority> authorities) {
         this.id = id;
         this.username = username;
         this.password = password;
+        this.authorities = authorities;
     }
 
     /**
      * Returns the authorities granted to the user.
-     * In this implementation, no specific roles or authorities are defined.
+     * Regular users have none; administrators have ROLE_ADMIN.
      *
-     * @return a list of granted authorities, which is empty in this case.
+     * @return a list of granted authorities.
      */
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        return List.of(); // No authorities are assigned to this user.
+        return authorities; // Returns the roles stored in the object.
     }
 
     /**
@@ -2,17 +2,30 @@ package org.api.doit.security;
 
 import org.api.doit.entity.User;
 import org.api.doit.repository.UserRepository;
+import org.api.doit.singleflight.SingleFlight;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
 public class CustomUserDetailsService implements UserDetailsService {
 
+    private static final List<GrantedAuthority> ADMIN_AUTHORITIES = List.of(new SimpleGrantedAuthority("ROLE_ADMIN"));
+
     private final UserRepository userRepository;
+    private final SingleFlight<UUID, UserDetails> userLoads = new SingleFlight<>();
+
+    @Value("${app.admin.usernames}")
+    private Set<String> adminUsernames;
 
     /**
      * Constructor to initialize the CustomUserDetailsService with the UserRepository.
@@ -33,6 +46,7 @@ public class CustomUserDetailsService implements UserDetailsService {
      * @throws UsernameNotFoundException if the user with the given username is not found.
      */
     @Override
+    @Transactional(readOnly = true)
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         // Attempts to find the user by username, and maps the User entity to CustomUserDetails.
         return userRepository.findByUsername(username).map(this::mapToCustomUserDetails)
@@ -43,6 +57,8 @@ public class CustomUserDetailsService implements UserDetailsService {
     /**
      * Loads a user by their UUID (ID).
      * Similar to loadUserByUsername but based on the user's ID.
+     * Concurrent loads of the same user, as in a burst of requests from one client, share one query.
+     * No transaction is opened here, so waiting callers hold no connection; findById runs in its own.
      *
      * @param id the UUID of the user to be fetched.
      * @return a UserDetails object containing the user's details.
@@ -50,8 +66,8 @@ public class CustomUserDetailsService implements UserDetailsService {
      */
     public UserDetails loadUserById(UUID id) {
         // Attempts to find the user by ID and maps the User entity to CustomUserDetails.
-        return userRepository.findById(id).map(this::mapToCustomUserDetails)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+        return userLoads.execute(id, () -> userRepository.findById(id).map(this::mapToCustomUserDetails)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found")));
         // If the user is not found, an exception is thrown.
     }
 
@@ -59,12 +75,15 @@ public class CustomUserDetailsService implements UserDetailsService {
      * Maps a User entity to a CustomUserDetails object.
      * This method is used to transform a User entity into a UserDetails object
      * that can be used by Spring Security for authentication and authorization.
+     * Users listed in app.admin.usernames are granted the ADMIN role.
      *
      * @param user the User entity to be mapped.
-     * @return a CustomUserDetails object containing the user's ID, username, and password.
+     * @return a CustomUserDetails object containing the user's ID, username, password, and roles.
      */
     private CustomUserDetails mapToCustomUserDetails(User user) {
+        List<GrantedAuthority> authorities = adminUsernames.contains(user.getUsername()) ? ADMIN_AUTHORITIES : List.of();
+
         // Maps the user object to CustomUserDetails, which is used for Spring Security authentication.
-        return new CustomUserDetails(user.getId(), user.getUsername(), user.getPassword());
+        return new CustomUserDetails(user.getId(), user.getUsername(), user.getPassword(), authorities);
     }
 }
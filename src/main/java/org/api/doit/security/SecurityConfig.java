@@ -1,5 +1,7 @@
 package org.api.doit.security;
 
+import jakarta.servlet.DispatcherType;
+import org.api.doit.datasource.LastWriteMarker;
 import org.api.doit.exception.handler.CustomAuthenticationEntryPoint;
 import org.api.doit.jwt.JwtFilter;
 import org.springframework.context.annotation.Bean;
@@ -63,12 +65,17 @@ public class SecurityConfig {
                             config.setAllowedOrigins(List.of("http://127.0.0.1:5500"));
                             config.setAllowedMethods(List.of("*"));
                             config.setAllowedHeaders(List.of("*"));
+                            config.setExposedHeaders(List.of("ETag", LastWriteMarker.HEADER)); // Lets the browser client read task versions for If-Match and its last write time
 
                             return config;
                         }))
                 )
                 .authorizeHttpRequests((request) -> request
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll() // Async dispatches of SSE streams were already authorized on the initial request.
+                        .requestMatchers("/api/v1/auth/logout").authenticated() // Logging out revokes the token the request was made with.
                         .requestMatchers("/api/v1/auth/**").permitAll() // Allow public access to authentication-related endpoints.
+                        .requestMatchers("/actuator/health", "/actuator/health/**").permitAll() // Health and probes are polled by the platform without a token.
+                        .requestMatchers("/api/v1/admin/**").hasRole("ADMIN") // Administrative endpoints are limited to users listed in app.admin.usernames.
                         .anyRequest().authenticated() // All other requests require authentication.
                 )
                 .exceptionHandling((ex) -> ex
@@ -0,0 +1,132 @@
+package org.api.doit.service;
+
+import org.api.doit.entity.Label;
+import org.api.doit.repository.LabelRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Service responsible for turning the label names sent by clients into the user's Label entities,
+ * creating the labels that do not exist yet.
+ */
+@Service
+public class LabelService {
+    private final LabelRepository labelRepository;
+
+    /**
+     * Constructor for dependency injection.
+     *
+     * @param labelRepository Label repository interface.
+     */
+    public LabelService(final LabelRepository labelRepository) {
+        this.labelRepository = labelRepository;
+    }
+
+    /**
+     * Normalizes label names: trimmed, lowercase, without duplicates or blanks.
+     *
+     * @param names the names sent by the client, possibly null.
+     * @return the distinct normalized names, in their original order.
+     */
+    public Set<String> normalize(final Collection<String> names) {
+        Set<String> normalized = new LinkedHashSet<>();
+        if (names == null) {
+            return normalized;
+        }
+
+        for (String name : names) {
+            if (name != null && !name.isBlank()) {
+                normalized.add(name.trim().toLowerCase(Locale.ROOT));
+            }
+        }
+        return normalized;
+    }
+
+    /**
+     * Retrieves the user's labels with the given names within the current transaction, creating the missing ones.
+     *
+     * @param userId the owner of the labels.
+     * @param names the label names sent by the client, possibly null.
+     * @return one label per distinct normalized name.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<Label> resolve(final UUID userId, final Collection<String> names) {
+        Set<String> normalized = normalize(names);
+        if (normalized.isEmpty()) {
+            return List.of();
+        }
+
+        List<Label> labels = new ArrayList<>(labelRepository.findByUserIdAndNameIn(userId, normalized));
+        if (labels.size() == normalized.size()) {
+            return labels;
+        }
+
+        // Concurrent requests may create the same label, so missing ones are upserted and then read back
+        Set<String> missing = new LinkedHashSet<>(normalized);
+        labels.forEach((label) -> missing.remove(label.getName()));
+        missing.forEach((name) -> labelRepository.insertIfAbsent(userId, name));
+
+        labels.addAll(labelRepository.findByUserIdAndNameIn(userId, missing));
+        return labels;
+    }
+
+    /**
+     * Resolves the label names of several users at once, like {@link #resolve(UUID, Collection)} for each of them,
+     * with one query for all users' existing labels, and one more if some had to be created.
+     *
+     * @param namesByUser the normalized label names of each user.
+     * @return the labels of each user, by name.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Map<UUID, Map<String, Label>> resolveAll(final Map<UUID, Set<String>> namesByUser) {
+        Map<UUID, Map<String, Label>> labels = new HashMap<>();
+        Set<String> allNames = new HashSet<>();
+        namesByUser.forEach((userId, names) -> {
+            labels.put(userId, new HashMap<>());
+            allNames.addAll(names);
+        });
+        if (allNames.isEmpty()) {
+            return labels;
+        }
+
+        collect(labelRepository.findByUserIdInAndNameIn(namesByUser.keySet(), allNames), namesByUser, labels);
+
+        // Concurrent requests may create the same label, so missing ones are upserted and then read back
+        boolean created = false;
+        for (Map.Entry<UUID, Set<String>> names : namesByUser.entrySet()) {
+            for (String name : names.getValue()) {
+                if (!labels.get(names.getKey()).containsKey(name)) {
+                    labelRepository.insertIfAbsent(names.getKey(), name);
+                    created = true;
+                }
+            }
+        }
+        if (created) {
+            collect(labelRepository.findByUserIdInAndNameIn(namesByUser.keySet(), allNames), namesByUser, labels);
+        }
+        return labels;
+    }
+
+    /**
+     * Adds the labels each user asked for; a name only another user asked for is read along and skipped.
+     */
+    private static void collect(List<Label> found, Map<UUID, Set<String>> namesByUser, Map<UUID, Map<String, Label>> labels) {
+        for (Label label : found) {
+            if (namesByUser.get(label.getUserId()).contains(label.getName())) {
+                labels.get(label.getUserId()).putIfAbsent(label.getName(), label);
+            }
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package org.api.doit.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lexicographic rank keys used to order tasks.
+ * Keys are base-62 strings compared character by character (the column uses the "C" collation),
+ * so a key can always be generated between two others and moving a task rewrites only its own row.
+ * Keys never end with the lowest digit, which guarantees there is always room between two keys.
+ */
+final class RankKeys {
+
+    private static final String DIGITS = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz";
+    private static final int BASE = DIGITS.length();
+    private static final int APPEND_WIDTH = 6; // Room for about 900 million appends before a key grows
+
+    private RankKeys() {}
+
+    /**
+     * Generates a key strictly between two keys.
+     *
+     * @param lower the key to stay above, or null for the start of the list
+     * @param upper the key to stay below, or null for the end of the list
+     * @return a key greater than lower and smaller than upper
+     * @throws IllegalArgumentException if lower is not smaller than upper
+     */
+    static String between(String lower, String upper) {
+        String lo = lower == null ? "" : lower;
+        String hi = upper;
+
+        if (hi != null && lo.compareTo(hi) >= 0) {
+            throw new IllegalArgumentException("Rank key " + lo + " is not below " + hi);
+        }
+
+        StringBuilder key = new StringBuilder();
+        for (int i = 0; ; i++) {
+            int low = i < lo.length() ? digit(lo.charAt(i)) : 0;
+            int high = hi != null && i < hi.length() ? digit(hi.charAt(i)) : BASE;
+
+            if (low == high) {
+                key.append(DIGITS.charAt(low));
+                continue;
+            }
+
+            int middle = (low + high) / 2;
+            if (middle > low) {
+                return key.append(DIGITS.charAt(middle)).toString();
+            }
+
+            // Adjacent digits: keep the lower one, after which the upper bound no longer constrains the rest
+            key.append(DIGITS.charAt(low));
+            hi = null;
+        }
+    }
+
+    /**
+     * Generates a key for a task appended after the last one.
+     * Unlike between(last, null), which halves the remaining space and grows the key every few
+     * appends, this increments the key at a fixed width so long runs of appends keep short keys.
+     *
+     * @param last the current last key, or null for an empty list
+     * @return a key greater than last
+     */
+    static String after(String last) {
+        if (last == null) {
+            return between(null, null);
+        }
+
+        char[] chars = new char[Math.max(APPEND_WIDTH, last.length())];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = i < last.length() ? last.charAt(i) : DIGITS.charAt(0);
+        }
+
+        for (int i = chars.length - 1; i >= 0; i--) {
+            int digit = digit(chars[i]) + 1;
+            if (digit < BASE) {
+                chars[i] = DIGITS.charAt(digit);
+                return stripTrailingZeros(chars);
+            }
+            chars[i] = DIGITS.charAt(0); // Carries into the previous digit
+        }
+
+        // Every digit was already the highest one
+        return between(last, null);
+    }
+
+    /**
+     * Generates evenly spaced keys of equal length, used when a list is rebalanced.
+     *
+     * @param count the number of keys
+     * @return the keys in ascending order
+     */
+    static List<String> evenlySpaced(int count) {
+        // The smallest width with at least one free slot between consecutive keys
+        int width = 1;
+        long slots = BASE;
+        while (slots < 2L * (count + 1)) {
+            width++;
+            slots *= BASE;
+        }
+
+        List<String> keys = new ArrayList<>(count);
+        long step = slots / (count + 1);
+        for (int i = 1; i <= count; i++) {
+            keys.add(encode(i * step, width));
+        }
+        return keys;
+    }
+
+    private static String encode(long value, int width) {
+        char[] chars = new char[width];
+        for (int i = width - 1; i >= 0; i--) {
+            chars[i] = DIGITS.charAt((int) (value % BASE));
+            value /= BASE;
+        }
+
+        return stripTrailingZeros(chars);
+    }
+
+    // Dropping trailing lowest digits keeps the order and leaves room before the key
+    private static String stripTrailingZeros(char[] chars) {
+        int length = chars.length;
+        while (length > 1 && chars[length - 1] == DIGITS.charAt(0)) {
+            length--;
+        }
+        return new String(chars, 0, length);
+    }
+
+    private static int digit(char c) {
+        int digit = DIGITS.indexOf(c);
+        if (digit < 0) {
+            throw new IllegalArgumentException("Invalid rank key character " + c);
+        }
+        return digit;
+    }
+}
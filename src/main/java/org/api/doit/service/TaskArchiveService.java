@@ -0,0 +1,152 @@
+package org.api.doit.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.api.doit.dto.TaskResponse;
+import org.api.doit.entity.ArchivedTask;
+import org.api.doit.event.TaskChangeType;
+import org.api.doit.event.TaskChangedEvent;
+import org.api.doit.repository.ArchivedTaskRepository;
+import org.api.doit.repository.LabelRepository;
+import org.api.doit.repository.TaskRepository;
+import org.api.doit.repository.TaskTombstoneRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Service responsible for moving old completed tasks from the tasks table to tasks_archive.
+ * Each run moves at most a bounded number of batches, every batch in its own short
+ * transaction with a pause in between, so archiving never holds many locks or saturates the database.
+ * Every archived task is published as an ARCHIVED change, so the in-process indexes drop it, and leaves a
+ * tombstone under its owner's next change sequence, so incremental sync clients drop it too: like a full
+ * resync, they only hold the hot tasks. Archived tasks stay readable one by one.
+ */
+@Service
+@Lazy(false) // The archiver is never injected anywhere, so it must be created eagerly for its schedule to run
+@ConditionalOnProperty(name = "app.archive.enabled", havingValue = "true")
+public class TaskArchiveService {
+    private static final Logger log = LoggerFactory.getLogger(TaskArchiveService.class);
+
+    private final TaskRepository taskRepository;
+    private final ArchivedTaskRepository archivedTaskRepository;
+    private final LabelRepository labelRepository;
+    private final TaskTombstoneRepository taskTombstoneRepository;
+    private final TaskWriter taskWriter;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Counter archivedTasks;
+    private final DistributionSummary archivedTasksPerRun;
+
+    @Value("${app.archive.completed-age-days}")
+    private long completedAgeDays;
+
+    @Value("${app.archive.batch-size}")
+    private int batchSize;
+
+    @Value("${app.archive.max-batches-per-run}")
+    private int maxBatchesPerRun;
+
+    @Value("${app.archive.batch-pause-ms}")
+    private long batchPauseMs;
+
+    /**
+     * Constructor for dependency injection.
+     *
+     * @param taskRepository Task repository holding the hot rows.
+     * @param archivedTaskRepository Repository of the archive table.
+     * @param labelRepository Repository whose task links are dropped once copied into the archived rows.
+     * @param taskTombstoneRepository Repository of the tombstones left for incremental sync clients.
+     * @param taskWriter Takes the change sequence of the archived tasks' owners.
+     * @param transactionTemplate Runs each batch in its own transaction.
+     * @param eventPublisher Publishes the archived tasks to listeners such as the search index.
+     * @param meterRegistry Registry where archiving metrics are published.
+     */
+    public TaskArchiveService(final TaskRepository taskRepository,
+                              final ArchivedTaskRepository archivedTaskRepository,
+                              final LabelRepository labelRepository,
+                              final TaskTombstoneRepository taskTombstoneRepository,
+                              final TaskWriter taskWriter,
+                              final TransactionTemplate transactionTemplate,
+                              final ApplicationEventPublisher eventPublisher,
+                              final MeterRegistry meterRegistry) {
+        this.taskRepository = taskRepository;
+        this.archivedTaskRepository = archivedTaskRepository;
+        this.labelRepository = labelRepository;
+        this.taskTombstoneRepository = taskTombstoneRepository;
+        this.taskWriter = taskWriter;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.archivedTasks = meterRegistry.counter("tasks.archived");
+        this.archivedTasksPerRun = meterRegistry.summary("tasks.archived.per.run");
+    }
+
+    /**
+     * Archives completed tasks older than the configured age, batch by batch.
+     */
+    @Scheduled(fixedDelayString = "${app.archive.interval-ms}")
+    public void archiveCompletedTasks() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(completedAgeDays);
+        long moved = 0;
+
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            Integer batchMoved = transactionTemplate.execute((status) -> moveBatch(cutoff));
+            moved += batchMoved;
+            archivedTasks.increment(batchMoved);
+
+            // A short batch means nothing is left to archive
+            if (batchMoved < batchSize) {
+                break;
+            }
+
+            try {
+                Thread.sleep(batchPauseMs); // Throttles the mover so it leaves room for user traffic
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        archivedTasksPerRun.record(moved);
+        if (moved > 0) {
+            log.info("Archived {} completed tasks last updated before {}", moved, cutoff);
+        }
+    }
+
+    private int moveBatch(LocalDateTime cutoff) {
+        // The owners' rows are locked first, in user ID order, like every task writer does
+        List<UUID> userIds = taskRepository.findArchivableUserIds(cutoff, batchSize);
+        if (userIds.isEmpty()) {
+            return 0;
+        }
+        taskWriter.nextChangeSeqs(userIds);
+
+        List<UUID> ids = taskRepository.lockArchivableIds(cutoff, userIds, batchSize);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        archivedTaskRepository.copyFromTasks(ids, now);
+        taskTombstoneRepository.insertForTasks(ids, now);
+        labelRepository.unlinkTasks(ids); // The archived rows keep the label names
+        int moved = taskRepository.deleteByIdIn(ids);
+
+        // Delivered once the batch commits, like any other task change
+        for (ArchivedTask task : archivedTaskRepository.findAllById(ids)) {
+            eventPublisher.publishEvent(new TaskChangedEvent(TaskChangeType.ARCHIVED, task.getUserId(), task.getId(), TaskResponse.from(task)));
+        }
+        return moved;
+    }
+}
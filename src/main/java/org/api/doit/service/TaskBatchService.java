@@ -0,0 +1,126 @@
+package org.api.doit.service;
+
+import org.api.doit.dto.BatchOperationRequest;
+import org.api.doit.dto.BatchOperationResult;
+import org.api.doit.dto.BatchOperationType;
+import org.api.doit.dto.BatchResponse;
+import org.api.doit.dto.TaskResponse;
+import org.api.doit.exception.BatchTooLargeException;
+import org.api.doit.security.AuthenticationFacade;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Service responsible for applying an ordered list of task operations in one transaction.
+ * The batch takes the user's change sequence once: toggles and deletes are applied in order on tasks loaded
+ * with one query, then created tasks are inserted together, and every write goes out as JDBC batches.
+ * Task IDs are assigned by the server, so no operation of a batch can refer to a task the same batch creates,
+ * and inserting the creations last gives the same outcome as applying them in submitted order.
+ * An operation on a missing task is reported in its result and does not abort the others.
+ */
+@Service
+public class TaskBatchService {
+    private final AuthenticationFacade authenticationFacade;
+    private final TaskWriter taskWriter;
+
+    @Value("${app.batch.max-operations}")
+    private int maxOperations;
+
+    /**
+     * Constructor for dependency injection.
+     *
+     * @param authenticationFacade Abstraction to retrieve the authenticated user's ID.
+     * @param taskWriter Task writes shared with the single-task endpoints.
+     */
+    public TaskBatchService(final AuthenticationFacade authenticationFacade,
+                            final TaskWriter taskWriter) {
+        this.authenticationFacade = authenticationFacade;
+        this.taskWriter = taskWriter;
+    }
+
+    /**
+     * Applies the operations in order for the authenticated user.
+     *
+     * @param operations the operations to apply.
+     * @return BatchResponse with one result per operation, in the same order.
+     * @throws BatchTooLargeException if there are more operations than app.batch.max-operations allows.
+     */
+    @Transactional
+    public BatchResponse executeBatch(final List<BatchOperationRequest> operations) {
+        if (operations.size() > maxOperations) {
+            throw new BatchTooLargeException("A batch allows up to " + maxOperations + " operations, got " + operations.size() + ".");
+        }
+
+        UUID userId = authenticationFacade.getId();
+        List<TaskWriter.NewTask> newTasks = new ArrayList<>();
+        List<Integer> createIndexes = new ArrayList<>();
+        List<TaskWriter.TaskChange> changes = new ArrayList<>();
+        List<Integer> changeIndexes = new ArrayList<>();
+        BatchOperationResult[] results = new BatchOperationResult[operations.size()];
+
+        for (int i = 0; i < operations.size(); i++) {
+            BatchOperationRequest operation = operations.get(i);
+
+            if (operation.type() == BatchOperationType.CREATE) {
+                if (operation.task() == null) {
+                    results[i] = failure(i, HttpStatus.BAD_REQUEST, "A CREATE operation requires a task.");
+                    continue;
+                }
+                newTasks.add(new TaskWriter.NewTask(userId, operation.task()));
+                createIndexes.add(i);
+                continue;
+            }
+
+            if (operation.id() == null) {
+                results[i] = failure(i, HttpStatus.BAD_REQUEST, "A " + operation.type() + " operation requires an id.");
+                continue;
+            }
+            changes.add(new TaskWriter.TaskChange(operation.id(), operation.type() == BatchOperationType.DELETE));
+            changeIndexes.add(i);
+        }
+
+        if (newTasks.isEmpty() && changes.isEmpty()) {
+            return new BatchResponse(List.of(results));
+        }
+        long changeSeq = taskWriter.nextChangeSeq(userId);
+
+        if (!changes.isEmpty()) {
+            List<TaskResponse> changed = taskWriter.apply(userId, changes, changeSeq);
+            for (int i = 0; i < changed.size(); i++) {
+                int index = changeIndexes.get(i);
+                TaskWriter.TaskChange change = changes.get(i);
+                if (changed.get(i) == null) {
+                    results[index] = notFound(index, change.id());
+                } else if (change.delete()) {
+                    results[index] = new BatchOperationResult(index, HttpStatus.NO_CONTENT.value(), null, null);
+                } else {
+                    results[index] = new BatchOperationResult(index, HttpStatus.OK.value(), changed.get(i), null);
+                }
+            }
+        }
+
+        if (!newTasks.isEmpty()) {
+            List<TaskResponse> created = taskWriter.create(newTasks, Map.of(userId, changeSeq));
+            for (int i = 0; i < created.size(); i++) {
+                results[createIndexes.get(i)] = new BatchOperationResult(createIndexes.get(i), HttpStatus.CREATED.value(), created.get(i), null);
+            }
+        }
+
+        return new BatchResponse(List.of(results));
+    }
+
+    private BatchOperationResult notFound(int index, UUID id) {
+        return failure(index, HttpStatus.NOT_FOUND, "Task with id " + id + " was not found for the current user.");
+    }
+
+    private BatchOperationResult failure(int index, HttpStatus status, String error) {
+        return new BatchOperationResult(index, status.value(), null, error);
+    }
+}
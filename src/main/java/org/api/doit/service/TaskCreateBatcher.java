@@ -0,0 +1,257 @@
+package org.api.doit.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.api.doit.datasource.LastWriteMarker;
+import org.api.doit.dto.CreateTaskRequest;
+import org.api.doit.dto.TaskResponse;
+import org.api.doit.jfr.TaskOperationEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Group commit for task creation: concurrent create requests are queued to a single writer thread,
+ * which gathers them for up to a few milliseconds or a maximum batch size and inserts them with one
+ * flush and one commit, instead of one transaction per request.
+ * If a batch fails, its requests are retried one transaction each, so a bad request only fails itself.
+ * Requests are written in arrival order; when the queue is full a request is written on its own thread.
+ * A request still queued after the await timeout, because the writer is stuck or gone, is taken back
+ * and written on its own thread as well. Once its task is committed, the caller marks the client's last write,
+ * so its next reads are routed to the primary as after any other write.
+ */
+@Service
+@ConditionalOnProperty(name = "app.group-commit.enabled", havingValue = "true")
+public class TaskCreateBatcher {
+    private static final Logger log = LoggerFactory.getLogger(TaskCreateBatcher.class);
+
+    private final TaskWriter taskWriter;
+    private final TransactionTemplate transactionTemplate; // Copied in start(), with the configured timeout
+    private final DistributionSummary batchSizes;
+    private final Timer commitTime;
+    private final Timer waitTime;
+    private TransactionTemplate batchTransaction;
+    private BlockingQueue<PendingCreate> queue;
+    private volatile boolean running = true;
+    private Thread writer;
+
+    @Value("${app.group-commit.queue-capacity}")
+    private int queueCapacity;
+
+    @Value("${app.group-commit.max-batch-size}")
+    private int maxBatchSize;
+
+    @Value("${app.group-commit.max-wait-ms}")
+    private long maxWaitMs;
+
+    @Value("${app.group-commit.await-timeout-ms}")
+    private long awaitTimeoutMs;
+
+    @Value("${app.group-commit.transaction-timeout-seconds}")
+    private int transactionTimeoutSeconds;
+
+    /**
+     * Constructor for dependency injection.
+     *
+     * @param taskWriter Creates the tasks of a batch together.
+     * @param transactionTemplate Template whose settings the batch transactions start from.
+     * @param meterRegistry Registry where batch sizes and latencies are published.
+     */
+    public TaskCreateBatcher(final TaskWriter taskWriter,
+                             final TransactionTemplate transactionTemplate,
+                             final MeterRegistry meterRegistry) {
+        this.taskWriter = taskWriter;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSizes = meterRegistry.summary("tasks.create.batch.size");
+        this.commitTime = meterRegistry.timer("tasks.create.batch.commit"); // One insert and commit of a whole batch
+        this.waitTime = meterRegistry.timer("tasks.create.batch.latency"); // From enqueueing to the caller's response
+    }
+
+    /**
+     * Starts the writer thread.
+     */
+    @PostConstruct
+    public void start() {
+        // Bounds how long a batch can keep its callers waiting, even once they stopped waiting for the writer
+        batchTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager(), transactionTemplate);
+        batchTransaction.setTimeout(transactionTimeoutSeconds);
+
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        writer = Thread.ofPlatform().name("task-group-commit").daemon().start(this::run);
+    }
+
+    /**
+     * Stops the writer once the requests already queued are written.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        writer.interrupt();
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+
+        // Requests queued after the writer's last drain
+        PendingCreate pending;
+        while ((pending = queue.poll()) != null) {
+            writeAlone(pending);
+        }
+    }
+
+    /**
+     * Creates a task as part of the next batch and waits for the batch to commit.
+     *
+     * @param userId the owner of the new task.
+     * @param createTaskRequest Data required to create a new task.
+     * @return TaskResponse containing task details.
+     */
+    public TaskResponse createTask(final UUID userId, final CreateTaskRequest createTaskRequest) {
+        PendingCreate pending = new PendingCreate(userId, createTaskRequest, new CompletableFuture<>(), System.nanoTime());
+
+        if (!running || !writer.isAlive() || !queue.offer(pending)) {
+            // Saturated, shutting down or without a writer: write it on the caller's thread rather than block
+            writeAlone(pending);
+        }
+
+        try {
+            TaskResponse response = await(pending);
+            // The writer thread commits outside of the request, so the caller hands its client the marker
+            LastWriteMarker.mark();
+            return response;
+        } catch (CompletionException e) {
+            // Rethrown as is, so the exception handlers see what the per-request path would throw
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        } finally {
+            waitTime.record(System.nanoTime() - pending.enqueuedAt(), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Waits for the request to be written. Past the timeout, a request the writer has not picked up yet
+     * is written on the caller's thread; one the writer is writing is bounded by the transaction timeout.
+     */
+    private TaskResponse await(PendingCreate pending) {
+        try {
+            return pending.result().get(awaitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            if (queue.remove(pending)) {
+                log.warn("Group commit writer did not pick a request up within {} ms, writing it alone", awaitTimeoutMs);
+                writeAlone(pending);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt(); // The task may still be written, so its outcome is awaited regardless
+        } catch (ExecutionException e) {
+            throw new CompletionException(e.getCause());
+        }
+        return pending.result().join();
+    }
+
+    private void run() {
+        List<PendingCreate> batch = new ArrayList<>(maxBatchSize);
+
+        while (running) {
+            try {
+                batch.add(queue.take());
+
+                // The first request opens the window; the batch is written when it is full or the window closes
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+                while (batch.size() < maxBatchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0 || queue.drainTo(batch, maxBatchSize - batch.size()) == 0) {
+                        PendingCreate next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                        if (next == null) {
+                            break;
+                        }
+                        batch.add(next);
+                    }
+                }
+            } catch (InterruptedException e) {
+                break;
+            }
+
+            writeSafely(batch);
+            batch.clear();
+        }
+
+        // Whatever was accepted before shutdown is still written
+        queue.drainTo(batch);
+        writeSafely(batch);
+    }
+
+    /**
+     * Writes a batch, failing its requests on any throwable instead of letting it end the writer thread.
+     */
+    private void writeSafely(List<PendingCreate> batch) {
+        try {
+            write(batch);
+        } catch (Throwable e) {
+            log.error("Group commit of {} tasks failed unexpectedly", batch.size(), e);
+            batch.forEach((pending) -> pending.result().completeExceptionally(e));
+        }
+    }
+
+    private void write(List<PendingCreate> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        List<TaskResponse> responses;
+        try {
+            responses = commitTime.record(() -> batchTransaction.execute((status) -> insert(batch)));
+        } catch (RuntimeException e) {
+            log.debug("Group commit of {} tasks failed, writing them one by one", batch.size(), e);
+            batch.forEach(this::writeAlone);
+            return;
+        }
+
+        batchSizes.record(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).result().complete(responses.get(i));
+        }
+    }
+
+    private void writeAlone(PendingCreate pending) {
+        try {
+            List<TaskResponse> response = batchTransaction.execute((status) -> insert(List.of(pending)));
+            pending.result().complete(response.getFirst());
+        } catch (RuntimeException | Error e) {
+            pending.result().completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Inserts the batch within the current transaction, returning the responses in batch order.
+     */
+    private List<TaskResponse> insert(List<PendingCreate> batch) {
+        TaskOperationEvent event = TaskOperationEvent.start("groupCreateTasks");
+
+        // One JDBC batch and one commit for the whole group
+        List<TaskResponse> responses = taskWriter.create(batch.stream()
+                .map((pending) -> new TaskWriter.NewTask(pending.userId(), pending.request()))
+                .toList());
+
+        event.finish(responses.size());
+        return responses;
+    }
+
+    private record PendingCreate(UUID userId, CreateTaskRequest request, CompletableFuture<TaskResponse> result, long enqueuedAt) {
+    }
+}
@@ -0,0 +1,72 @@
+package org.api.doit.service;
+
+import org.api.doit.dto.TaskResponse;
+import org.api.doit.event.TaskChangedEvent;
+import org.api.doit.singleflight.SingleFlight;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * Lets identical concurrent task list reads of a user, typically from several devices at once, share one query.
+ * A read only joins a query started after the user's last committed write, so a client always sees its own
+ * writes: every write bumps a generation that is part of the key.
+ * Followers wait outside any transaction, so they hold no database connection while waiting.
+ */
+@Component
+public class TaskListCoalescer {
+    private static final int GENERATION_STRIPES = 1024; // Users sharing a stripe only cost each other a joined read
+
+    private final TransactionTemplate readOnlyTransaction;
+    private final SingleFlight<ListKey, List<TaskResponse>> flights = new SingleFlight<>();
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    /**
+     * Constructor for dependency injection.
+     *
+     * @param transactionManager Runs the shared queries in a read-only transaction.
+     */
+    public TaskListCoalescer(final PlatformTransactionManager transactionManager) {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Reads a task list, sharing the query of an identical read that is running.
+     *
+     * @param userId the owner of the tasks.
+     * @param completed the completion status filter, or null for all tasks.
+     * @param includeArchived whether archived tasks are part of the list.
+     * @param loader runs the query, inside a read-only transaction.
+     * @return the task list.
+     */
+    public List<TaskResponse> read(final UUID userId, final Boolean completed, final boolean includeArchived,
+                                   final Supplier<List<TaskResponse>> loader) {
+        ListKey key = new ListKey(userId, completed, includeArchived, generations.get(stripe(userId)));
+        return flights.execute(key, () -> readOnlyTransaction.execute((status) -> loader.get()));
+    }
+
+    /**
+     * Moves the user to a new generation, before the writing request returns.
+     *
+     * @param event the task change published by a task write
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onTaskChanged(TaskChangedEvent event) {
+        generations.incrementAndGet(stripe(event.userId()));
+    }
+
+    private static int stripe(UUID userId) {
+        return Math.floorMod(userId.hashCode(), GENERATION_STRIPES);
+    }
+
+    private record ListKey(UUID userId, Boolean completed, boolean includeArchived, long generation) {
+    }
+}
@@ -0,0 +1,132 @@
+package org.api.doit.service;
+
+import jakarta.persistence.EntityManager;
+import org.api.doit.dto.TaskResponse;
+import org.api.doit.entity.Task;
+import org.api.doit.event.TaskChangeType;
+import org.api.doit.event.TaskChangedEvent;
+import org.api.doit.repository.TaskRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Service responsible for rewriting the positions of a user's tasks as short, evenly spaced keys.
+ * Repeated moves into the same gap make keys longer; once a key exceeds the configured length
+ * its user is queued and rebalanced in the background. Relative order never changes.
+ * A rewritten key is a change like any other: the task's version and change sequence move on and an UPDATED
+ * event is published, so the stream, the outbox and the in-memory indexes see the new positions. Clients holding
+ * the ETag of a rewritten task get 412 on their next conditional edit and must refetch the task, or pick the new
+ * version up from the stream.
+ */
+@Service
+@Lazy(false) // Only TaskService injects it, lazily under the faststart profile, yet its schedule must run from startup
+public class TaskPositionRebalancer {
+    private static final Logger log = LoggerFactory.getLogger(TaskPositionRebalancer.class);
+
+    private final TaskRepository taskRepository;
+    private final TaskWriter taskWriter;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Set<UUID> pendingUsers = ConcurrentHashMap.newKeySet();
+
+    @Value("${app.ordering.max-key-length}")
+    private int maxKeyLength;
+
+    /**
+     * Constructor for dependency injection.
+     *
+     * @param taskRepository Task repository whose positions are rewritten.
+     * @param taskWriter Hands out the change sequence stamped on the rewritten tasks.
+     * @param transactionTemplate Runs each queued rebalance in its own transaction.
+     * @param entityManager Flushes the rewritten keys, so the published snapshots carry the new versions.
+     * @param eventPublisher Publishes an UPDATED event for every task whose key was rewritten.
+     */
+    public TaskPositionRebalancer(final TaskRepository taskRepository,
+                                  final TaskWriter taskWriter,
+                                  final TransactionTemplate transactionTemplate,
+                                  final EntityManager entityManager,
+                                  final ApplicationEventPublisher eventPublisher) {
+        this.taskRepository = taskRepository;
+        this.taskWriter = taskWriter;
+        this.transactionTemplate = transactionTemplate;
+        this.entityManager = entityManager;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Queues the user for a background rebalance if the key is longer than allowed.
+     *
+     * @param userId the owner of the task.
+     * @param position the key just assigned to one of the user's tasks.
+     */
+    public void checkLength(final UUID userId, final String position) {
+        if (position.length() > maxKeyLength) {
+            pendingUsers.add(userId);
+        }
+    }
+
+    /**
+     * Rewrites the positions of all tasks of a user within the current transaction.
+     * Tasks without a position are placed after the others, in creation order.
+     * Only the tasks whose key actually changes are updated and announced.
+     *
+     * @param userId the owner of the tasks.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void rebalance(final UUID userId) {
+        long changeSeq = taskWriter.nextChangeSeq(userId); // Before the task rows are locked
+        List<Task> tasks = taskRepository.lockByUserIdInPositionOrder(userId);
+        List<String> positions = RankKeys.evenlySpaced(tasks.size());
+
+        List<Task> moved = new ArrayList<>();
+        for (int i = 0; i < tasks.size(); i++) {
+            Task task = tasks.get(i);
+            if (!positions.get(i).equals(task.getPosition())) {
+                task.setPosition(positions.get(i));
+                task.setChangeSeq(changeSeq);
+                moved.add(task);
+            }
+        }
+        entityManager.flush(); // Writes the keys now, so the snapshots carry the new versions
+
+        for (Task task : moved) {
+            eventPublisher.publishEvent(new TaskChangedEvent(TaskChangeType.UPDATED, userId, task.getId(), TaskResponse.from(task)));
+        }
+        pendingUsers.remove(userId);
+    }
+
+    /**
+     * Rebalances the users queued since the last run, each in its own transaction.
+     */
+    @Scheduled(fixedDelayString = "${app.ordering.rebalance-interval-ms}")
+    public void rebalancePending() {
+        Iterator<UUID> pending = pendingUsers.iterator();
+
+        while (pending.hasNext()) {
+            UUID userId = pending.next();
+            pending.remove();
+
+            try {
+                transactionTemplate.executeWithoutResult((status) -> rebalance(userId));
+            } catch (RuntimeException e) {
+                log.warn("Could not rebalance task positions of user {}", userId, e);
+            }
+        }
+    }
+}
@@ -1,18 +1,54 @@
 package org.api.doit.service;
 
 import jakarta.persistence.EntityManager;
-import jakarta.transaction.Transactional;
 import org.api.doit.dto.CreateTaskRequest;
+import org.api.doit.dto.LabelMatch;
+import org.api.doit.dto.MoveTaskRequest;
+import org.api.doit.dto.TaskChangesResponse;
+import org.api.doit.dto.TaskFilterRequest;
+import org.api.doit.dto.TaskLabelsRequest;
+import org.api.doit.dto.TaskPageResponse;
 import org.api.doit.dto.TaskResponse;
+import org.api.doit.dto.TaskSortField;
+import org.api.doit.dto.TaskSummaryResponse;
 import org.api.doit.entity.Task;
-import org.api.doit.entity.User;
+import org.api.doit.entity.TaskTombstone;
+import org.api.doit.event.TaskChangeType;
+import org.api.doit.event.TaskChangedEvent;
+import org.api.doit.exception.InvalidSyncTokenException;
+import org.api.doit.exception.InvalidTaskFilterException;
+import org.api.doit.exception.InvalidTaskPositionException;
 import org.api.doit.exception.TaskNotFoundException;
+import org.api.doit.exception.TaskVersionMismatchException;
+import org.api.doit.jfr.TaskOperationEvent;
+import org.api.doit.label.TaskLabelIndex;
+import org.api.doit.repository.ArchivedTaskRepository;
 import org.api.doit.repository.TaskRepository;
+import org.api.doit.repository.TaskSpecifications;
+import org.api.doit.repository.TaskTombstoneRepository;
+import org.api.doit.repository.UserRepository;
+import org.api.doit.search.TaskSearchIndex;
 import org.api.doit.security.AuthenticationFacade;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 /**
  * Service responsible for task-related operations such as creation,
@@ -21,22 +57,78 @@ import java.util.UUID;
 @Service
 public class TaskService {
     private final TaskRepository taskRepository;
+    private final TaskTombstoneRepository taskTombstoneRepository;
+    private final ArchivedTaskRepository archivedTaskRepository;
     private final AuthenticationFacade authenticationFacade;
     private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TaskStatsService taskStatsService;
+    private final TaskSearchIndex taskSearchIndex;
+    private final TaskPositionRebalancer taskPositionRebalancer;
+    private final LabelService labelService;
+    private final TaskLabelIndex taskLabelIndex;
+    private final TaskListCoalescer taskListCoalescer;
+    private final TaskWriter taskWriter;
+    private final UserRepository userRepository;
+
+    @Value("${app.sync.tombstone-retention-days}")
+    private long tombstoneRetentionDays;
+
+    @Value("${app.filter.default-page-size}")
+    private int defaultPageSize;
+
+    @Value("${app.filter.max-page-size}")
+    private int maxPageSize;
+
+    @Value("${app.filter.max-offset}")
+    private long maxOffset;
 
     /**
      * Constructor for dependency injection.
      *
      * @param taskRepository Task repository interface.
+     * @param taskTombstoneRepository Repository recording deleted tasks for incremental sync.
+     * @param archivedTaskRepository Repository of completed tasks moved to cold storage.
      * @param authenticationFacade Abstraction to retrieve the authenticated user's ID.
      * @param entityManager EntityManager to obtain references to managed entities.
+     * @param eventPublisher Publishes task changes to listeners such as the SSE stream hub.
+     * @param taskStatsService Maintains the per-user task counters.
+     * @param taskSearchIndex In-process full-text index over the users' tasks.
+     * @param taskPositionRebalancer Rewrites task positions whose keys became too long.
+     * @param labelService Resolves label names into the user's labels.
+     * @param taskLabelIndex In-process bitmap index over the labels of the users' tasks.
+     * @param taskListCoalescer Shares one query between identical concurrent task list reads.
+     * @param taskWriter Task writes shared with the batch endpoint and group commit.
+     * @param userRepository Reads the users' change sequences for incremental sync.
      */
     public TaskService(final TaskRepository taskRepository,
+                       final TaskTombstoneRepository taskTombstoneRepository,
+                       final ArchivedTaskRepository archivedTaskRepository,
                        final AuthenticationFacade authenticationFacade,
-                       final EntityManager entityManager) {
+                       final EntityManager entityManager,
+                       final ApplicationEventPublisher eventPublisher,
+                       final TaskStatsService taskStatsService,
+                       final TaskSearchIndex taskSearchIndex,
+                       final TaskPositionRebalancer taskPositionRebalancer,
+                       final LabelService labelService,
+                       final TaskLabelIndex taskLabelIndex,
+                       final TaskListCoalescer taskListCoalescer,
+                       final TaskWriter taskWriter,
+                       final UserRepository userRepository) {
         this.authenticationFacade = authenticationFacade;
         this.entityManager = entityManager;
+        this.eventPublisher = eventPublisher;
+        this.taskStatsService = taskStatsService;
+        this.taskSearchIndex = taskSearchIndex;
+        this.taskPositionRebalancer = taskPositionRebalancer;
+        this.labelService = labelService;
+        this.taskLabelIndex = taskLabelIndex;
+        this.taskListCoalescer = taskListCoalescer;
+        this.taskWriter = taskWriter;
+        this.userRepository = userRepository;
         this.taskRepository = taskRepository;
+        this.taskTombstoneRepository = taskTombstoneRepository;
+        this.archivedTaskRepository = archivedTaskRepository;
     }
 
     /**
@@ -47,42 +139,203 @@ public class TaskService {
      */
     @Transactional
     public TaskResponse createTask(final CreateTaskRequest createTaskRequest) {
-        // Create a reference to the authenticated user without querying the DB
-        User userRef = entityManager.getReference(User.class, authenticationFacade.getId());
-
-        Task task = new Task(createTaskRequest.title(), createTaskRequest.description(), userRef);
-        entityManager.persist(task);
+        TaskOperationEvent event = TaskOperationEvent.start("createTask");
+        UUID userId = authenticationFacade.getId();
 
-        entityManager.flush(); //Insert immediately to bd
+        TaskResponse response = taskWriter.create(List.of(new TaskWriter.NewTask(userId, createTaskRequest))).getFirst();
 
-        return new TaskResponse(task.getId(), task.getTitle(), task.getDescription(), task.isCompleted(), task.getCreatedAt());
+        event.finish(1);
+        return response;
     }
 
     /**
-     * Retrieves all tasks belonging to the authenticated user, ordered by creation date.
+     * Retrieves all tasks belonging to the authenticated user, in their manual order.
      *
+     * @param includeArchived true to also return completed tasks moved to the archive.
      * @return List of TaskResponse objects.
      */
-    @Transactional
-    public List<TaskResponse> getAllTasks() {
-        List<Task> tasks = taskRepository.findByUserIdOrderByCreatedAt(authenticationFacade.getId());
-        return tasks.stream()
-                .map(TaskResponse::from)
-                .toList();
+    public List<TaskResponse> getAllTasks(final boolean includeArchived) {
+        TaskOperationEvent event = TaskOperationEvent.start("getAllTasks");
+        UUID userId = authenticationFacade.getId();
+
+        // Identical reads running at the same time share one query
+        List<TaskResponse> result = taskListCoalescer.read(userId, null, includeArchived, () -> {
+            List<TaskResponse> tasks = taskRepository.findByUserIdOrderByPositionAscCreatedAtAsc(userId).stream()
+                    .map(TaskResponse::from)
+                    .toList();
+            return includeArchived ? withArchived(userId, tasks) : tasks;
+        });
+        event.finish(result.size());
+        return result;
     }
 
     /**
      * Retrieves tasks filtered by their completion status for the current user.
      *
      * @param completed true to get completed tasks, false for incomplete.
+     * @param includeArchived true to also return completed tasks moved to the archive.
      * @return List of TaskResponse objects.
      */
-    @Transactional
-    public List<TaskResponse> getTasksByCompleted(Boolean completed) {
-        List<Task> tasks = taskRepository.findByUserIdAndCompletedOrderByCreatedAt(authenticationFacade.getId(), completed);
-        return tasks.stream()
+    public List<TaskResponse> getTasksByCompleted(Boolean completed, final boolean includeArchived) {
+        TaskOperationEvent event = TaskOperationEvent.start("getTasksByCompleted");
+        UUID userId = authenticationFacade.getId();
+
+        // Only completed tasks are ever archived
+        boolean archived = includeArchived && completed;
+        List<TaskResponse> result = taskListCoalescer.read(userId, completed, archived, () -> {
+            List<TaskResponse> tasks = taskRepository.findByUserIdAndCompletedOrderByPositionAscCreatedAtAsc(userId, completed).stream()
+                    .map(TaskResponse::from)
+                    .toList();
+            return archived ? withArchived(userId, tasks) : tasks;
+        });
+        event.finish(result.size());
+        return result;
+    }
+
+    /**
+     * Retrieves the current user's tasks carrying all or any of the given labels, answered from the label index.
+     * Archived tasks keep their label names but are not indexed, so they are never returned.
+     *
+     * @param labels the label names to filter on.
+     * @param match whether a task needs every label or at least one.
+     * @param completed the completion status to keep, or null for both.
+     * @return List of matching TaskResponse objects, in manual order.
+     */
+    @Transactional(readOnly = true)
+    public List<TaskResponse> getTasksByLabels(final Collection<String> labels, final LabelMatch match, final Boolean completed) {
+        TaskOperationEvent event = TaskOperationEvent.start("getTasksByLabels");
+        UUID userId = authenticationFacade.getId();
+        Set<String> names = labelService.normalize(labels);
+        if (names.isEmpty()) {
+            event.finish(0);
+            return List.of();
+        }
+
+        // The loader only runs when the user's index has to be built
+        List<TaskResponse> result = taskLabelIndex.filter(userId, names, match, completed, () -> taskRepository.findByUserIdOrderByPositionAscCreatedAtAsc(userId).stream()
                 .map(TaskResponse::from)
-                .toList();
+                .toList());
+        event.finish(result.size());
+        return result;
+    }
+
+    /**
+     * Retrieves one page of the current user's tasks matching the given criteria.
+     * Only the criteria that are set end up in the query, which reads one row more than the page
+     * instead of counting every match. Archived tasks are not included.
+     * Page numbers are only accepted up to the maximum offset; further pages are read from the cursor
+     * of the previous one, which continues after its last (sort value, ID) instead of skipping rows.
+     *
+     * @param filter the criteria, sort and page or cursor to read.
+     * @return TaskPageResponse with the tasks of the page and the cursor of the next one.
+     * @throws InvalidTaskFilterException if the page size or offset exceeds the maximum, a range is inverted
+     *                                    or the cursor is invalid.
+     */
+    @Transactional(readOnly = true)
+    public TaskPageResponse filterTasks(final TaskFilterRequest filter) {
+        TaskOperationEvent event = TaskOperationEvent.start("filterTasks");
+        UUID userId = authenticationFacade.getId();
+
+        int size = filter.size() != null ? filter.size() : defaultPageSize;
+        if (size > maxPageSize) {
+            throw new InvalidTaskFilterException("The page size allows up to " + maxPageSize + " tasks, got " + size + ".");
+        }
+        if (filter.cursor() != null && filter.page() > 0) {
+            throw new InvalidTaskFilterException("A page number cannot be combined with a cursor.");
+        }
+        if ((long) filter.page() * size > maxOffset) {
+            throw new InvalidTaskFilterException("Page numbers reach up to the first " + maxOffset + " tasks; read further pages with nextCursor.");
+        }
+        checkRange("created", filter.createdFrom(), filter.createdTo());
+        checkRange("updated", filter.updatedFrom(), filter.updatedTo());
+        PageCursor cursor = parseCursor(filter);
+
+        Specification<Task> specification = TaskSpecifications.ownedBy(userId)
+                .and(TaskSpecifications.completed(filter.completed()))
+                .and(TaskSpecifications.between("createdAt", filter.createdFrom(), filter.createdTo()))
+                .and(TaskSpecifications.between("updatedAt", filter.updatedFrom(), filter.updatedTo()))
+                .and(TaskSpecifications.titleStartsWith(filter.titlePrefix()))
+                .and(cursor != null ? cursor.toSpecification() : null);
+
+        // The ID breaks ties, so rows never move between pages when sort values are equal
+        Sort sort = Sort.by(new Sort.Order(filter.direction(), filter.sort().property()), Sort.Order.asc("id"));
+
+        Slice<Task> slice = taskRepository.findSlice(specification, PageRequest.of(filter.page(), size, sort));
+        String nextCursor = slice.hasNext() ? PageCursor.after(filter, slice.getContent().getLast()).toString() : null;
+        event.finish(slice.getNumberOfElements());
+        return new TaskPageResponse(slice.map(TaskResponse::from).getContent(), filter.page(), size, slice.hasNext(), nextCursor);
+    }
+
+    /**
+     * Searches the current user's tasks by title and description.
+     * Every word of the query must be the prefix of a word in the task.
+     *
+     * @param query the free-text query.
+     * @return List of matching TaskResponse objects.
+     */
+    @Transactional(readOnly = true)
+    public List<TaskResponse> searchTasks(final String query) {
+        TaskOperationEvent event = TaskOperationEvent.start("searchTasks");
+        UUID userId = authenticationFacade.getId();
+
+        // The loader only runs when the user's index has to be built
+        List<TaskResponse> result = taskSearchIndex.search(userId, query, () -> taskRepository.findByUserIdOrderByPositionAscCreatedAtAsc(userId).stream()
+                .map(TaskResponse::from)
+                .toList());
+        event.finish(result.size());
+        return result;
+    }
+
+    /**
+     * Retrieves the total, completed and open task counts of the current user
+     * from its incrementally maintained counters.
+     *
+     * @return TaskSummaryResponse with the counts.
+     */
+    public TaskSummaryResponse getTaskSummary() {
+        TaskOperationEvent event = TaskOperationEvent.start("getTaskSummary");
+        TaskSummaryResponse summary = taskStatsService.getSummary(authenticationFacade.getId());
+        event.finish(1);
+        return summary;
+    }
+
+    /**
+     * Retrieves the tasks created, updated or deleted since the given sync token.
+     * Without a token, or with one older than the tombstone retention window, every task
+     * is returned and the client is told to replace its local copy.
+     * The token holds the user's change sequence, which orders changes by commit: a change committing
+     * after the read always gets a higher sequence, so it is picked up by the next call.
+     * The snapshot is shared by the three queries, so the sequence matches the changes returned.
+     *
+     * @param syncToken token returned by a previous call, or null for a first sync.
+     * @return TaskChangesResponse with the changes and the token to use next time.
+     */
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public TaskChangesResponse getChanges(final String syncToken) {
+        TaskOperationEvent event = TaskOperationEvent.start("getChanges");
+        UUID userId = authenticationFacade.getId();
+        SyncToken since = parseSyncToken(syncToken);
+        SyncToken next = new SyncToken(userRepository.findChangeSeq(userId), LocalDateTime.now());
+
+        // Deletions older than the retention window may already be purged, so the delta would be incomplete
+        boolean fullResync = since == null || since.issuedAt().isBefore(LocalDateTime.now().minusDays(tombstoneRetentionDays));
+
+        if (fullResync) {
+            List<Task> tasks = taskRepository.findByUserIdOrderByPositionAscCreatedAtAsc(userId);
+
+            event.finish(tasks.size());
+            return new TaskChangesResponse(tasks.stream().map(TaskResponse::from).toList(), List.of(), true, next.toString());
+        }
+
+        List<Task> changed = taskRepository.findByUserIdAndChangeSeqGreaterThanOrderByChangeSeq(userId, since.changeSeq());
+        List<TaskTombstone> deleted = taskTombstoneRepository.findByUserIdAndChangeSeqGreaterThanOrderByChangeSeq(userId, since.changeSeq());
+
+        event.finish(changed.size() + deleted.size());
+        return new TaskChangesResponse(
+                changed.stream().map(TaskResponse::from).toList(),
+                deleted.stream().map(TaskTombstone::getTaskId).toList(),
+                false,
+                next.toString());
     }
 
     /**
@@ -91,29 +344,135 @@ public class TaskService {
      * @param id UUID of the task.
      * @return TaskResponse containing task details.
      */
-    @Transactional
+    @Transactional(readOnly = true)
     public TaskResponse getTask(final UUID id) {
-        Task task = taskRepository.findByIdAndUserId(id, authenticationFacade.getId())
-                .orElseThrow(() -> new TaskNotFoundException("Task with id " + id + " was not found for the current user."));
+        TaskOperationEvent event = TaskOperationEvent.start("getTask");
+        UUID userId = authenticationFacade.getId();
+        Task task = taskRepository.findByIdAndUserId(id, userId).orElse(null);
 
-        return new TaskResponse(task.getId(), task.getTitle(), task.getDescription(), task.isCompleted(), task.getCreatedAt());
+        // Fall back to cold storage for old completed tasks
+        TaskResponse response = task != null ? TaskResponse.from(task) : archivedTaskRepository.findByIdAndUserId(id, userId)
+                .map(TaskResponse::from)
+                .orElseThrow(() -> new TaskNotFoundException("Task with id " + id + " was not found for the current user."));
+        event.finish(1);
+        return response;
     }
 
     /**
      * Toggles the completion status of a specific task.
+     * The flip happens in one UPDATE statement, so concurrent toggles are applied one after the other.
      *
      * @param id UUID of the task.
      * @return TaskResponse reflecting the updated task.
      */
     @Transactional
     public TaskResponse toggleTaskCompleted(final UUID id) {
-        Task task = taskRepository.findByIdAndUserId(id, authenticationFacade.getId())
+        TaskOperationEvent event = TaskOperationEvent.start("toggleTaskCompleted");
+        UUID userId = authenticationFacade.getId();
+        TaskResponse response = taskWriter.toggleCompleted(userId, id)
                 .orElseThrow(() -> new TaskNotFoundException("Task with id " + id + " was not found for the current user."));
 
-        // Flip the task's completed status
-        task.toggleCompleted();
+        event.finish(1);
+        return response;
+    }
+
+    /**
+     * Sets the completion status of a specific task. Idempotent: a task that already has the status is returned unchanged.
+     *
+     * @param id UUID of the task.
+     * @param completed the target completion status.
+     * @return TaskResponse reflecting the task.
+     */
+    @Transactional
+    public TaskResponse setTaskCompleted(final UUID id, final boolean completed) {
+        TaskOperationEvent event = TaskOperationEvent.start("setTaskCompleted");
+        UUID userId = authenticationFacade.getId();
+        TaskResponse response = taskWriter.setCompleted(userId, id, completed)
+                .orElseThrow(() -> new TaskNotFoundException("Task with id " + id + " was not found for the current user."));
 
-        return new TaskResponse(task.getId(), task.getTitle(), task.getDescription(), task.isCompleted(), task.getCreatedAt());
+        event.finish(1);
+        return response;
+    }
+
+    /**
+     * Replaces the labels of a task, creating the labels the user does not have yet.
+     *
+     * @param id UUID of the task.
+     * @param taskLabelsRequest the complete list of labels the task should carry.
+     * @param expectedVersion the version the client last saw, or null to apply the change whatever the current one.
+     * @return TaskResponse reflecting the new labels.
+     * @throws TaskVersionMismatchException if the task is no longer at the expected version.
+     */
+    @Transactional
+    public TaskResponse setTaskLabels(final UUID id, final TaskLabelsRequest taskLabelsRequest, final Long expectedVersion) {
+        TaskOperationEvent event = TaskOperationEvent.start("setTaskLabels");
+        UUID userId = authenticationFacade.getId();
+        long changeSeq = taskWriter.nextChangeSeq(userId);
+        Task task = findOwnedTask(id, userId);
+        checkVersion(task, expectedVersion);
+
+        task.setLabels(labelService.resolve(userId, taskLabelsRequest.labels()));
+        task.setChangeSeq(changeSeq);
+        entityManager.flush(); // Writes the change now, so the response carries the new version
+
+        TaskResponse response = TaskResponse.from(task);
+        eventPublisher.publishEvent(new TaskChangedEvent(TaskChangeType.UPDATED, userId, task.getId(), response));
+
+        event.finish(1);
+        return response;
+    }
+
+    /**
+     * Moves a task between two of the user's tasks. Only the moved task's row is updated.
+     *
+     * @param id UUID of the task to move.
+     * @param moveTaskRequest the tasks that will be right before and right after it.
+     * @param expectedVersion the version the client last saw, or null to apply the change whatever the current one.
+     * @return TaskResponse reflecting the new position.
+     * @throws InvalidTaskPositionException if no neighbor is given or the neighbors are in the wrong order.
+     * @throws TaskVersionMismatchException if the task is no longer at the expected version.
+     */
+    @Transactional
+    public TaskResponse moveTask(final UUID id, final MoveTaskRequest moveTaskRequest, final Long expectedVersion) {
+        TaskOperationEvent event = TaskOperationEvent.start("moveTask");
+        UUID userId = authenticationFacade.getId();
+
+        if (moveTaskRequest.afterId() == null && moveTaskRequest.beforeId() == null) {
+            throw new InvalidTaskPositionException("At least one of afterId and beforeId is required.");
+        }
+        if (id.equals(moveTaskRequest.afterId()) || id.equals(moveTaskRequest.beforeId())) {
+            throw new InvalidTaskPositionException("A task cannot be placed next to itself.");
+        }
+
+        long changeSeq = taskWriter.nextChangeSeq(userId);
+        Task task = findOwnedTask(id, userId);
+        checkVersion(task, expectedVersion);
+        Task after = moveTaskRequest.afterId() == null ? null : findOwnedTask(moveTaskRequest.afterId(), userId);
+        Task before = moveTaskRequest.beforeId() == null ? null : findOwnedTask(moveTaskRequest.beforeId(), userId);
+
+        // Neighbors created before manual ordering, or sharing a key after concurrent creations, need fresh keys first
+        if ((after != null && after.getPosition() == null)
+                || (before != null && before.getPosition() == null)
+                || (after != null && before != null && after.getPosition().equals(before.getPosition()))) {
+            taskPositionRebalancer.rebalance(userId);
+        }
+
+        String lower = after == null ? null : after.getPosition();
+        String upper = before == null ? null : before.getPosition();
+        if (lower != null && upper != null && lower.compareTo(upper) > 0) {
+            throw new InvalidTaskPositionException("Task " + after.getId() + " is not placed before task " + before.getId() + ".");
+        }
+
+        task.setPosition(RankKeys.between(lower, upper));
+        task.setChangeSeq(changeSeq);
+        taskPositionRebalancer.checkLength(userId, task.getPosition());
+        entityManager.flush(); // Writes the change now, so the response carries the new version
+
+        TaskResponse response = TaskResponse.from(task);
+        eventPublisher.publishEvent(new TaskChangedEvent(TaskChangeType.UPDATED, userId, task.getId(), response));
+
+        event.finish(1);
+        return response;
     }
 
     /**
@@ -123,9 +482,174 @@ public class TaskService {
      */
     @Transactional
     public void deleteTask(final UUID id) {
-        Task task = taskRepository.findByIdAndUserId(id, authenticationFacade.getId())
+        TaskOperationEvent event = TaskOperationEvent.start("deleteTask");
+        UUID userId = authenticationFacade.getId();
+        if (!taskWriter.delete(userId, id)) {
+            throw new TaskNotFoundException("Task with id " + id + " was not found for the current user.");
+        }
+
+        event.finish(1);
+    }
+
+    /**
+     * Retrieves a task of the given user for an update.
+     *
+     * @param id UUID of the task.
+     * @param userId the ID of the user owning it.
+     * @return the managed task.
+     * @throws TaskNotFoundException if the user has no such task.
+     */
+    private Task findOwnedTask(final UUID id, final UUID userId) {
+        return taskRepository.findByIdAndUserId(id, userId)
                 .orElseThrow(() -> new TaskNotFoundException("Task with id " + id + " was not found for the current user."));
+    }
+
+    /**
+     * Rejects a conditional edit of a task that changed since the client read it.
+     * A change committed after this check still fails the edit, through the version check of the UPDATE.
+     *
+     * @param task the task about to be edited.
+     * @param expectedVersion the version the client last saw, or null for an unconditional edit.
+     * @throws TaskVersionMismatchException if the task is at another version.
+     */
+    private void checkVersion(final Task task, final Long expectedVersion) {
+        if (expectedVersion != null && expectedVersion != task.getVersion()) {
+            throw new TaskVersionMismatchException("Task " + task.getId() + " is at version " + task.getVersion()
+                    + ", not " + expectedVersion + ".");
+        }
+    }
+
+    /**
+     * Merges the user's archived tasks into a list of hot tasks.
+     * Archived tasks have no position, so they follow the ordered tasks by creation date.
+     *
+     * @param userId the ID of the user.
+     * @param tasks the hot tasks, in their manual order.
+     * @return the hot and archived tasks in manual order, then by creation date.
+     */
+    private List<TaskResponse> withArchived(final UUID userId, final List<TaskResponse> tasks) {
+        List<TaskResponse> archived = archivedTaskRepository.findByUserIdOrderByCreatedAt(userId).stream()
+                .map(TaskResponse::from)
+                .toList();
+
+        if (archived.isEmpty()) {
+            return tasks;
+        }
+
+        return Stream.concat(tasks.stream(), archived.stream())
+                .sorted(Comparator.comparing(TaskResponse::position, Comparator.nullsLast(Comparator.naturalOrder()))
+                        .thenComparing(TaskResponse::createdAt))
+                .toList();
+    }
+
+    /**
+     * Rejects a range whose lower bound is not before its upper bound.
+     *
+     * @param name the name of the range, used in the error message.
+     * @param from the inclusive lower bound, possibly null.
+     * @param to the exclusive upper bound, possibly null.
+     * @throws InvalidTaskFilterException if both bounds are set and the range is empty.
+     */
+    private void checkRange(final String name, final LocalDateTime from, final LocalDateTime to) {
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new InvalidTaskFilterException("The " + name + " range must start before it ends.");
+        }
+    }
+
+    /**
+     * Parses the cursor of a filter, previously issued as nextCursor by filterTasks.
+     *
+     * @param filter the filter carrying the cursor, possibly none.
+     * @return the position to continue after, or null when no cursor was sent.
+     * @throws InvalidTaskFilterException if the cursor cannot be parsed or was issued for another sort.
+     */
+    private PageCursor parseCursor(final TaskFilterRequest filter) {
+        if (filter.cursor() == null) {
+            return null;
+        }
+
+        PageCursor cursor;
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(filter.cursor()), StandardCharsets.UTF_8).split(",", 4);
+            cursor = new PageCursor(TaskSortField.valueOf(parts[0]), Sort.Direction.valueOf(parts[1]), UUID.fromString(parts[2]),
+                    parts.length > 3 ? parts[3] : null);
+            if (cursor.value() != null && cursor.sort() != TaskSortField.POSITION && cursor.sort() != TaskSortField.TITLE) {
+                LocalDateTime.parse(cursor.value());
+            }
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException | DateTimeParseException e) {
+            throw new InvalidTaskFilterException("Cursor " + filter.cursor() + " is not valid.");
+        }
+
+        if (cursor.sort() != filter.sort() || cursor.direction() != filter.direction()) {
+            throw new InvalidTaskFilterException("The cursor was issued for another sort.");
+        }
+        return cursor;
+    }
+
+    /**
+     * Parses a sync token previously issued by getChanges.
+     *
+     * @param syncToken the token sent by the client, possibly null or blank.
+     * @return the change sequence and issuing time encoded in the token, or null when no token was sent
+     *         or it predates change sequences and calls for a full resync.
+     * @throws InvalidSyncTokenException if the token cannot be parsed.
+     */
+    private SyncToken parseSyncToken(final String syncToken) {
+        if (syncToken == null || syncToken.isBlank()) {
+            return null;
+        }
+
+        int separator = syncToken.indexOf('@');
+        try {
+            if (separator < 0) {
+                LocalDateTime.parse(syncToken); // A timestamp token, issued before change sequences
+                return null;
+            }
+            return new SyncToken(Long.parseLong(syncToken.substring(0, separator)), LocalDateTime.parse(syncToken.substring(separator + 1)));
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new InvalidSyncTokenException("Sync token " + syncToken + " is not valid.");
+        }
+    }
+
+    /**
+     * A sync token: the user's change sequence the client is up to date with, and when it was issued.
+     */
+    private record SyncToken(long changeSeq, LocalDateTime issuedAt) {
+        @Override
+        public String toString() {
+            return changeSeq + "@" + issuedAt;
+        }
+    }
+
+    /**
+     * A filter page cursor: the sort it was issued for and the sort value and ID of the last task read.
+     * Encoded as URL-safe Base64, with the value last as it may contain the separator.
+     */
+    private record PageCursor(TaskSortField sort, Sort.Direction direction, UUID id, String value) {
+        static PageCursor after(TaskFilterRequest filter, Task last) {
+            Object value = switch (filter.sort()) {
+                case POSITION -> last.getPosition();
+                case CREATED_AT -> last.getCreatedAt();
+                case UPDATED_AT -> last.getUpdatedAt();
+                case DUE_AT -> last.getDueAt();
+                case TITLE -> last.getTitle();
+            };
+            return new PageCursor(filter.sort(), filter.direction(), last.getId(), value != null ? value.toString() : null);
+        }
+
+        Specification<Task> toSpecification() {
+            boolean ascending = direction.isAscending();
+            return switch (sort) {
+                case POSITION, TITLE -> TaskSpecifications.after(sort.property(), ascending, value, id);
+                case CREATED_AT, UPDATED_AT, DUE_AT ->
+                        TaskSpecifications.after(sort.property(), ascending, value != null ? LocalDateTime.parse(value) : null, id);
+            };
+        }
 
-        taskRepository.delete(task);
+        @Override
+        public String toString() {
+            String raw = sort + "," + direction + "," + id + (value != null ? "," + value : "");
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
     }
 }
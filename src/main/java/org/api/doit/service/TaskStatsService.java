@@ -0,0 +1,91 @@
+package org.api.doit.service;
+
+import org.api.doit.dto.TaskSummaryResponse;
+import org.api.doit.entity.UserTaskStats;
+import org.api.doit.repository.ArchivedTaskRepository;
+import org.api.doit.repository.TaskRepository;
+import org.api.doit.repository.UserTaskStatsRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+
+/**
+ * Service responsible for maintaining the per-user task counters.
+ * Counters are adjusted incrementally inside the transaction of each task write;
+ * users created before the counters existed get their row reconciled from the tasks table on first use.
+ */
+@Service
+public class TaskStatsService {
+    private final UserTaskStatsRepository userTaskStatsRepository;
+    private final TaskRepository taskRepository;
+    private final ArchivedTaskRepository archivedTaskRepository;
+
+    /**
+     * Constructor for dependency injection.
+     *
+     * @param userTaskStatsRepository Repository holding the counters.
+     * @param taskRepository Task repository used to reconcile missing counters.
+     * @param archivedTaskRepository Archive repository, whose tasks still count as completed.
+     */
+    public TaskStatsService(final UserTaskStatsRepository userTaskStatsRepository,
+                            final TaskRepository taskRepository,
+                            final ArchivedTaskRepository archivedTaskRepository) {
+        this.userTaskStatsRepository = userTaskStatsRepository;
+        this.taskRepository = taskRepository;
+        this.archivedTaskRepository = archivedTaskRepository;
+    }
+
+    /**
+     * Adds the given deltas to a user's counters as part of the caller's transaction.
+     *
+     * @param userId the ID of the user whose tasks changed.
+     * @param total delta of the total number of tasks.
+     * @param completed delta of the number of completed tasks.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void applyDelta(final UUID userId, final long total, final long completed) {
+        if (userTaskStatsRepository.applyDelta(userId, total, completed) > 0) {
+            return;
+        }
+
+        // No row yet: the counts below already include the caller's pending change
+        if (reconcile(userId) == 0) {
+            // A concurrent transaction created the row from a snapshot that cannot see our change
+            userTaskStatsRepository.applyDelta(userId, total, completed);
+        }
+    }
+
+    /**
+     * Returns the task counters of a user, creating them if they do not exist yet.
+     *
+     * @param userId the ID of the user.
+     * @return TaskSummaryResponse with the total, completed and open counts.
+     */
+    @Transactional
+    public TaskSummaryResponse getSummary(final UUID userId) {
+        UserTaskStats stats = userTaskStatsRepository.findById(userId).orElse(null);
+
+        if (stats == null) {
+            reconcile(userId);
+            stats = userTaskStatsRepository.findById(userId).orElseThrow();
+        }
+
+        return new TaskSummaryResponse(stats.getTotalCount(), stats.getCompletedCount(), stats.getTotalCount() - stats.getCompletedCount());
+    }
+
+    /**
+     * Creates the counters row of a user from their current tasks.
+     *
+     * @param userId the ID of the user.
+     * @return 1 if the row was created, 0 if another transaction created it first.
+     */
+    private int reconcile(final UUID userId) {
+        // Archived tasks are completed tasks moved out of the hot table
+        long archived = archivedTaskRepository.countByUserId(userId);
+        long total = taskRepository.countByUserId(userId) + archived;
+        long completed = taskRepository.countByUserIdAndCompleted(userId, true) + archived;
+        return userTaskStatsRepository.insertIfAbsent(userId, total, completed);
+    }
+}
@@ -0,0 +1,327 @@
+package org.api.doit.service;
+
+import jakarta.persistence.EntityManager;
+import org.api.doit.dto.CreateTaskRequest;
+import org.api.doit.dto.TaskResponse;
+import org.api.doit.entity.Label;
+import org.api.doit.entity.Task;
+import org.api.doit.entity.TaskTombstone;
+import org.api.doit.entity.User;
+import org.api.doit.event.TaskChangeType;
+import org.api.doit.event.TaskChangedEvent;
+import org.api.doit.repository.TaskRepository;
+import org.api.doit.repository.UserRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Service holding the task writes shared by the single-task endpoints, the batch endpoint and group commit.
+ * Each write runs in the caller's transaction and takes care of positions, labels, counters and change events,
+ * so every entry point behaves the same.
+ */
+@Service
+public class TaskWriter {
+    private final TaskRepository taskRepository;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TaskStatsService taskStatsService;
+    private final LabelService labelService;
+    private final UserRepository userRepository;
+
+    /**
+     * Constructor for dependency injection.
+     *
+     * @param taskRepository Task repository interface.
+     * @param entityManager EntityManager used to persist the tasks.
+     * @param eventPublisher Publishes task changes to listeners such as the SSE stream hub.
+     * @param taskStatsService Maintains the per-user task counters.
+     * @param labelService Resolves label names into the user's labels.
+     * @param userRepository Hands out the users' change sequences.
+     */
+    public TaskWriter(final TaskRepository taskRepository,
+                      final EntityManager entityManager,
+                      final ApplicationEventPublisher eventPublisher,
+                      final TaskStatsService taskStatsService,
+                      final LabelService labelService,
+                      final UserRepository userRepository) {
+        this.taskRepository = taskRepository;
+        this.entityManager = entityManager;
+        this.eventPublisher = eventPublisher;
+        this.taskStatsService = taskStatsService;
+        this.labelService = labelService;
+        this.userRepository = userRepository;
+    }
+
+    /**
+     * Creates tasks, possibly of several users, at the bottom of their owners' lists in the given order.
+     * Every query runs before the first insert, so no query forces an early flush
+     * and all the inserts go out together as JDBC batches.
+     *
+     * @param newTasks the tasks to create and their owners.
+     * @return one TaskResponse per task, in the same order.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<TaskResponse> create(final List<NewTask> newTasks) {
+        return create(newTasks, nextChangeSeqs(newTasks.stream().map(NewTask::userId).distinct().toList()));
+    }
+
+    /**
+     * Creates tasks like {@link #create(List)}, stamped with change sequences the transaction already took.
+     *
+     * @param newTasks the tasks to create and their owners.
+     * @param changeSeqs the change sequence taken for each owner.
+     * @return one TaskResponse per task, in the same order.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<TaskResponse> create(final List<NewTask> newTasks, final Map<UUID, Long> changeSeqs) {
+        // One query each for the positions and the labels of all the owners, however many there are
+        Map<UUID, String> lastPositions = new HashMap<>();
+        taskRepository.findLastPositions(changeSeqs.keySet())
+                .forEach((row) -> lastPositions.put((UUID) row[0], (String) row[1]));
+
+        List<Set<String>> labelNames = new ArrayList<>(newTasks.size());
+        Map<UUID, Set<String>> labelNamesByUser = new HashMap<>();
+        for (NewTask newTask : newTasks) {
+            Set<String> names = labelService.normalize(newTask.request().labels());
+            labelNames.add(names);
+            labelNamesByUser.computeIfAbsent(newTask.userId(), (userId) -> new HashSet<>()).addAll(names);
+        }
+        Map<UUID, Map<String, Label>> labelsByUser = labelService.resolveAll(labelNamesByUser);
+
+        Map<UUID, Long> createdPerUser = new HashMap<>();
+        List<Task> tasks = new ArrayList<>(newTasks.size());
+        for (int i = 0; i < newTasks.size(); i++) {
+            UUID userId = newTasks.get(i).userId();
+            CreateTaskRequest request = newTasks.get(i).request();
+
+            // A reference to the owner, without querying the DB
+            Task task = new Task(request.title(), request.description(), entityManager.getReference(User.class, userId));
+            String position = RankKeys.after(lastPositions.get(userId)); // New tasks go to the bottom of the list
+            lastPositions.put(userId, position);
+            task.setPosition(position);
+            task.setDueAt(request.dueAt());
+            task.setRemindAt(request.remindAt());
+            task.setLabels(new ArrayList<>(labelNames.get(i).stream().map(labelsByUser.get(userId)::get).toList()));
+            task.setChangeSeq(changeSeqs.get(userId));
+            entityManager.persist(task);
+
+            tasks.add(task);
+            createdPerUser.merge(userId, 1L, Long::sum);
+        }
+
+        entityManager.flush(); // Creation timestamps are only known once inserted
+        createdPerUser.forEach((userId, created) -> taskStatsService.applyDelta(userId, created, 0));
+
+        List<TaskResponse> responses = new ArrayList<>(tasks.size());
+        for (int i = 0; i < tasks.size(); i++) {
+            TaskResponse response = TaskResponse.from(tasks.get(i));
+            eventPublisher.publishEvent(new TaskChangedEvent(TaskChangeType.CREATED, newTasks.get(i).userId(), response.id(), response));
+            responses.add(response);
+        }
+        return responses;
+    }
+
+    /**
+     * Applies toggles and deletes of a user's tasks in order, all stamped with the given change sequence.
+     * The tasks are loaded with one query, and their updates, deletions and tombstones go out together
+     * as JDBC batches. The caller took the change sequence first, so its lock on the user's row keeps every
+     * other writer off the user's tasks until commit and the loaded tasks cannot go stale.
+     * A task toggled more than once reports its state after the last change for each of them.
+     *
+     * @param userId the owner of the tasks.
+     * @param changes the changes to apply, in order.
+     * @param changeSeq the change sequence the transaction took for the user.
+     * @return per change, the task after it, or as it was deleted; null if the user has no such task (anymore).
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<TaskResponse> apply(final UUID userId, final List<TaskChange> changes, final long changeSeq) {
+        Map<UUID, Task> tasks = new HashMap<>();
+        taskRepository.findByUserIdAndIdIn(userId, changes.stream().map(TaskChange::id).distinct().toList())
+                .forEach((task) -> tasks.put(task.getId(), task));
+
+        LocalDateTime now = LocalDateTime.now();
+        UUID[] changed = new UUID[changes.size()]; // The ID of the task each change applied to, null where none
+        Map<UUID, Task> toggled = new LinkedHashMap<>();
+        Map<UUID, TaskResponse> deleted = new LinkedHashMap<>(); // Read before the removal, while the labels can still be loaded
+        long completedDelta = 0;
+        for (int i = 0; i < changes.size(); i++) {
+            TaskChange change = changes.get(i);
+            Task task = change.delete() ? tasks.remove(change.id()) : tasks.get(change.id());
+            if (task == null) {
+                continue;
+            }
+            changed[i] = task.getId();
+
+            if (change.delete()) {
+                deleted.put(task.getId(), TaskResponse.from(task));
+                entityManager.remove(task);
+                // persist rather than save: with an assigned ID, save would merge and first select the tombstone
+                entityManager.persist(new TaskTombstone(task.getId(), userId, now, changeSeq));
+                toggled.remove(task.getId());
+                completedDelta -= task.isCompleted() ? 1 : 0;
+            } else {
+                task.setCompleted(!task.isCompleted());
+                task.setChangeSeq(changeSeq);
+                toggled.put(task.getId(), task);
+                completedDelta += task.isCompleted() ? 1 : -1;
+            }
+        }
+
+        entityManager.flush(); // Versions are only bumped once flushed
+        taskStatsService.applyDelta(userId, -deleted.size(), completedDelta);
+
+        Map<UUID, TaskResponse> responses = new HashMap<>(deleted);
+        for (Task task : toggled.values()) {
+            TaskResponse response = TaskResponse.from(task);
+            eventPublisher.publishEvent(new TaskChangedEvent(TaskChangeType.UPDATED, userId, task.getId(), response));
+            responses.put(task.getId(), response);
+        }
+        deleted.keySet().forEach((id) -> eventPublisher.publishEvent(new TaskChangedEvent(TaskChangeType.DELETED, userId, id, null)));
+
+        List<TaskResponse> results = new ArrayList<>(changed.length);
+        for (UUID id : changed) {
+            results.add(id != null ? responses.get(id) : null);
+        }
+        return results;
+    }
+
+    /**
+     * Flips the completion status of a task in one UPDATE statement, so concurrent toggles are applied one
+     * after the other and the row is not locked for a read-modify-write.
+     *
+     * @param userId the owner of the task.
+     * @param id the ID of the task.
+     * @return the task after the toggle, or empty if the user has no such task.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Optional<TaskResponse> toggleCompleted(final UUID userId, final UUID id) {
+        long changeSeq = nextChangeSeq(userId);
+        evict(id);
+        return taskRepository.toggleCompleted(id, userId, LocalDateTime.now(), changeSeq)
+                .map((task) -> completionChanged(userId, task));
+    }
+
+    /**
+     * Sets the completion status of a task in one UPDATE statement, unless it already has it.
+     *
+     * @param userId the owner of the task.
+     * @param id the ID of the task.
+     * @param completed the target completion status.
+     * @return the task with the requested status, or empty if the user has no such task.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Optional<TaskResponse> setCompleted(final UUID userId, final UUID id, final boolean completed) {
+        long changeSeq = nextChangeSeq(userId);
+        evict(id);
+        Optional<Task> changed = taskRepository.setCompleted(id, userId, completed, LocalDateTime.now(), changeSeq);
+        if (changed.isPresent()) {
+            return changed.map((task) -> completionChanged(userId, task));
+        }
+
+        // Nothing changed: the task already had the status, or does not exist
+        return taskRepository.findByIdAndUserId(id, userId).map(TaskResponse::from);
+    }
+
+    /**
+     * Takes the next change sequence of a user, to stamp on every task the transaction changes.
+     * Must run before the transaction changes any task of the user: the user's row is then locked
+     * before any task row, in the same order by every writer, and the changes commit in sequence order.
+     *
+     * @param userId the owner of the tasks about to change.
+     * @return the change sequence of the transaction's changes.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public long nextChangeSeq(final UUID userId) {
+        return userRepository.incrementChangeSeq(userId);
+    }
+
+    /**
+     * Takes the next change sequence of several users at once, like {@link #nextChangeSeq(UUID)} for each of them.
+     * Their rows are locked in one statement, in the order the database sorts their IDs, so every writer
+     * changing the tasks of several users locks them in the same order.
+     *
+     * @param userIds the owners of the tasks about to change.
+     * @return the change sequence of the transaction's changes, per user.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Map<UUID, Long> nextChangeSeqs(final Collection<UUID> userIds) {
+        Map<UUID, Long> changeSeqs = new HashMap<>();
+        userRepository.incrementChangeSeqs(userIds)
+                .forEach((row) -> changeSeqs.put((UUID) row[0], ((Number) row[1]).longValue()));
+        return changeSeqs;
+    }
+
+    private TaskResponse completionChanged(UUID userId, Task task) {
+        taskStatsService.applyDelta(userId, 0, task.isCompleted() ? 1 : -1);
+
+        TaskResponse response = TaskResponse.from(task);
+        eventPublisher.publishEvent(new TaskChangedEvent(TaskChangeType.UPDATED, userId, task.getId(), response));
+        return response;
+    }
+
+    /**
+     * Removes a task from the persistence context before an UPDATE ... RETURNING on its row:
+     * Hibernate would otherwise hand back the copy it already holds instead of the returned row.
+     * Pending changes are flushed first, so none is lost. Neither call queries the task.
+     */
+    private void evict(UUID id) {
+        entityManager.flush();
+        entityManager.detach(entityManager.getReference(Task.class, id));
+    }
+
+    /**
+     * Deletes a task and leaves a tombstone so incremental sync clients learn about the deletion.
+     *
+     * @param userId the owner of the task.
+     * @param id the ID of the task.
+     * @return whether the user had such a task.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean delete(final UUID userId, final UUID id) {
+        Task task = taskRepository.findByIdAndUserId(id, userId).orElse(null);
+        if (task == null) {
+            return false;
+        }
+
+        long changeSeq = nextChangeSeq(userId);
+        entityManager.remove(task);
+        // persist rather than save: with an assigned ID, save would merge and first select the tombstone
+        entityManager.persist(new TaskTombstone(task.getId(), userId, LocalDateTime.now(), changeSeq));
+        taskStatsService.applyDelta(userId, -1, task.isCompleted() ? -1 : 0);
+
+        eventPublisher.publishEvent(new TaskChangedEvent(TaskChangeType.DELETED, userId, task.getId(), null));
+        return true;
+    }
+
+    /**
+     * A task to create and its owner.
+     *
+     * @param userId the owner of the task.
+     * @param request the data of the task.
+     */
+    public record NewTask(UUID userId, CreateTaskRequest request) {
+    }
+
+    /**
+     * A toggle or a delete of a task, applied in bulk by {@link #apply(UUID, List, long)}.
+     *
+     * @param id the ID of the task.
+     * @param delete whether the task is deleted rather than toggled.
+     */
+    public record TaskChange(UUID id, boolean delete) {
+    }
+}
@@ -0,0 +1,69 @@
+package org.api.doit.service;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import org.api.doit.exception.InvalidTokenException;
+import org.api.doit.jwt.JwtService;
+import org.api.doit.jwt.TokenDenylist;
+import org.springframework.stereotype.Service;
+
+import java.util.UUID;
+
+/**
+ * Service responsible for revoking JWTs before they expire, on logout or by an administrator.
+ */
+@Service
+public class TokenRevocationService {
+    private final JwtService jwtService;
+    private final TokenDenylist tokenDenylist;
+
+    /**
+     * Constructor for dependency injection.
+     *
+     * @param jwtService Service used to verify the tokens being revoked.
+     * @param tokenDenylist Denylist checked by the JWT filter on every request.
+     */
+    public TokenRevocationService(final JwtService jwtService, final TokenDenylist tokenDenylist) {
+        this.jwtService = jwtService;
+        this.tokenDenylist = tokenDenylist;
+    }
+
+    /**
+     * Revokes a token until it expires. Expired tokens are ignored since they are already rejected.
+     *
+     * @param token the JWT to revoke.
+     * @throws InvalidTokenException if the token cannot be verified.
+     */
+    public void revokeToken(final String token) {
+        Claims claims;
+        try {
+            claims = jwtService.parseClaims(token);
+        } catch (ExpiredJwtException e) {
+            return;
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new InvalidTokenException("The token could not be verified.");
+        }
+
+        if (claims.getId() != null) {
+            tokenDenylist.revoke(claims.getId(), claims.getExpiration().getTime());
+            return;
+        }
+
+        // Tokens issued before token IDs were introduced can only be revoked together with the user's other tokens
+        String userId = claims.get("userId", String.class);
+        if (userId == null) {
+            throw new InvalidTokenException("The token does not identify a user.");
+        }
+        tokenDenylist.revokeUser(UUID.fromString(userId));
+    }
+
+    /**
+     * Revokes every token issued to a user so far; tokens obtained by logging in again remain valid.
+     *
+     * @param userId the user whose tokens are revoked.
+     */
+    public void revokeUserTokens(final UUID userId) {
+        tokenDenylist.revokeUser(userId);
+    }
+}
@@ -0,0 +1,47 @@
+package org.api.doit.service;
+
+import org.api.doit.repository.TaskTombstoneRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+
+/**
+ * Service responsible for discarding task tombstones once they fall outside the retention window.
+ * Clients whose sync token is older than the window are asked to do a full resync instead.
+ */
+@Service
+@Lazy(false) // Scheduled jobs only start once their bean exists, even under lazy initialization
+public class TombstonePurgeService {
+    private static final Logger log = LoggerFactory.getLogger(TombstonePurgeService.class);
+
+    private final TaskTombstoneRepository taskTombstoneRepository;
+
+    @Value("${app.sync.tombstone-retention-days}")
+    private long tombstoneRetentionDays;
+
+    /**
+     * Constructor for dependency injection.
+     *
+     * @param taskTombstoneRepository Repository holding the tombstones to purge.
+     */
+    public TombstonePurgeService(final TaskTombstoneRepository taskTombstoneRepository) {
+        this.taskTombstoneRepository = taskTombstoneRepository;
+    }
+
+    /**
+     * Deletes every tombstone older than the retention window in a single bulk statement.
+     */
+    @Scheduled(fixedDelayString = "${app.sync.tombstone-purge-interval-ms}")
+    public void purgeExpiredTombstones() {
+        int purged = taskTombstoneRepository.deleteByDeletedAtBefore(LocalDateTime.now().minusDays(tombstoneRetentionDays));
+
+        if (purged > 0) {
+            log.info("Purged {} expired task tombstones", purged);
+        }
+    }
+}
@@ -4,12 +4,16 @@ import org.api.doit.dto.AuthResponse;
 import org.api.doit.dto.LoginRequest;
 import org.api.doit.dto.RegisterRequest;
 import org.api.doit.entity.User;
+import org.api.doit.entity.UserTaskStats;
 import org.api.doit.exception.UserAlreadyExistsException;
+import org.api.doit.jfr.LoginEvent;
 import org.api.doit.jwt.JwtService;
 import org.api.doit.repository.UserRepository;
+import org.api.doit.repository.UserTaskStatsRepository;
 import org.api.doit.security.CustomUserDetails;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -21,6 +25,7 @@ import org.springframework.transaction.annotation.Transactional;
 @Service
 public class UserService {
     private final UserRepository userRepository;
+    private final UserTaskStatsRepository userTaskStatsRepository;
     private final PasswordEncoder passwordEncoder;
     private final AuthenticationManager authenticationManager;
     private final JwtService jwtService;
@@ -29,13 +34,15 @@ public class UserService {
      * Constructor for dependency injection.
      *
      * @param userRepository Repository for accessing user data.
+     * @param userTaskStatsRepository Repository holding the per-user task counters.
      * @param passwordEncoder Used to securely hash passwords.
      * @param authenticationManager Authenticates user credentials.
      * @param jwtService Service to generate and validate JWT tokens.
      */
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder,
-                       AuthenticationManager authenticationManager, JwtService jwtService) {
+    public UserService(UserRepository userRepository, UserTaskStatsRepository userTaskStatsRepository,
+                       PasswordEncoder passwordEncoder, AuthenticationManager authenticationManager, JwtService jwtService) {
         this.userRepository = userRepository;
+        this.userTaskStatsRepository = userTaskStatsRepository;
         this.passwordEncoder = passwordEncoder;
         this.authenticationManager = authenticationManager;
         this.jwtService = jwtService;
@@ -62,6 +69,9 @@ public class UserService {
         // Persist the new user in the database
         User user = userRepository.save(new User(registerRequest.username(), hashedPassword));
 
+        // Start the user's task counters at zero so task writes only ever update them
+        userTaskStatsRepository.save(new UserTaskStats(user.getId()));
+
         // Generate JWT token for the new user
         String token = jwtService.generateToken(user.getUsername(), user.getId());
 
@@ -79,7 +89,15 @@ public class UserService {
         final var authToken = new UsernamePasswordAuthenticationToken(loginRequest.username(), loginRequest.password());
 
         // Attempt authentication and retrieve the authenticated user
-        var authUser = (CustomUserDetails) authenticationManager.authenticate(authToken).getPrincipal();
+        LoginEvent event = LoginEvent.start();
+        CustomUserDetails authUser;
+        try {
+            authUser = (CustomUserDetails) authenticationManager.authenticate(authToken).getPrincipal();
+        } catch (AuthenticationException e) {
+            event.finish(false);
+            throw e;
+        }
+        event.finish(true);
 
         // Generate JWT token for the authenticated user
         String token = jwtService.generateToken(authUser.getUsername(), authUser.getId());
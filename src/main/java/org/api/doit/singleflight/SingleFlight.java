@@ -0,0 +1,62 @@
+package org.api.doit.singleflight;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent identical calls: while a call for a key is running, other callers with the
+ * same key wait for it and get its result, or its exception, instead of running their own.
+ * Nothing is cached: the key is released before its result is handed out, so a call arriving once
+ * the result exists starts a new one.
+ *
+ * @param <K> the type of the keys identifying identical calls
+ * @param <V> the type of the results
+ */
+public final class SingleFlight<K, V> {
+
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Runs the loader, unless a call with the same key is already running, in which case waits for its result.
+     *
+     * @param key identifies calls that would return the same result
+     * @param loader computes the result on the calling thread
+     * @return the result of the loader, or of the running call
+     */
+    public V execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, flight);
+
+        if (running != null) {
+            try {
+                return running.join();
+            } catch (CompletionException e) {
+                // The leader's exception, as the follower would have thrown it itself
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                if (e.getCause() instanceof Error error) {
+                    throw error;
+                }
+                throw e;
+            }
+        }
+
+        V result;
+        try {
+            result = loader.get();
+        } catch (RuntimeException | Error e) {
+            inFlight.remove(key, flight);
+            flight.completeExceptionally(e);
+            throw e;
+        }
+
+        // Released first, so no caller can pick up the result after the call has ended
+        inFlight.remove(key, flight);
+        flight.complete(result);
+        return result;
+    }
+}
@@ -0,0 +1,178 @@
+package org.api.doit.stream;
+
+import jakarta.annotation.PreDestroy;
+import org.api.doit.dto.TaskEventResponse;
+import org.api.doit.event.TaskChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Fan-out hub that pushes task changes to the Server-Sent Events streams of their owner.
+ * Idle connections cost no thread: the servlet request is held asynchronously and each
+ * subscriber only borrows a virtual thread while it has queued events to write.
+ * Subscribers whose queue overflows are considered too slow and are disconnected.
+ */
+@Component
+@Lazy(false) // Heartbeats only start once the bean exists, even under lazy initialization
+public class TaskStreamHub {
+    private static final Logger log = LoggerFactory.getLogger(TaskStreamHub.class);
+
+    private final Map<UUID, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+
+    @Value("${app.stream.timeout-ms}")
+    private long timeoutMs;
+
+    @Value("${app.stream.queue-capacity}")
+    private int queueCapacity;
+
+    /**
+     * Opens a new stream for the given user.
+     *
+     * @param userId the ID of the user whose task changes are streamed
+     * @return the emitter backing the SSE connection
+     */
+    public SseEmitter subscribe(UUID userId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(userId, emitter, new ArrayBlockingQueue<>(queueCapacity));
+
+        // Drops the subscriber whatever the reason the connection ends
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError((e) -> remove(subscriber));
+
+        subscribers.computeIfAbsent(userId, (id) -> ConcurrentHashMap.newKeySet()).add(subscriber);
+
+        // Flushes the response headers so the client knows the stream is open
+        subscriber.offer(SseEmitter.event().comment("connected"));
+        return emitter;
+    }
+
+    /**
+     * Forwards a task change to the streams of its owner once the transaction that produced it commits.
+     *
+     * @param event the task change published by TaskService
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onTaskChanged(TaskChangedEvent event) {
+        sendToUser(event.userId(), event.type().name().toLowerCase(), new TaskEventResponse(event.type(), event.taskId(), event.task()));
+    }
+
+    /**
+     * Sends a named event to every open stream of a user on this instance.
+     *
+     * @param userId the ID of the user
+     * @param name the SSE event name
+     * @param payload the event data, serialized as JSON
+     */
+    public void sendToUser(UUID userId, String name, Object payload) {
+        Set<Subscriber> userSubscribers = subscribers.get(userId);
+        if (userSubscribers == null) {
+            return;
+        }
+
+        for (Subscriber subscriber : userSubscribers) {
+            subscriber.offer(SseEmitter.event()
+                    .name(name)
+                    .data(payload, MediaType.APPLICATION_JSON));
+        }
+    }
+
+    /**
+     * Sends a comment line to every open stream so proxies keep idle connections open
+     * and dead clients are detected.
+     */
+    @Scheduled(fixedRateString = "${app.stream.heartbeat-interval-ms}")
+    public void sendHeartbeats() {
+        for (Set<Subscriber> userSubscribers : subscribers.values()) {
+            for (Subscriber subscriber : userSubscribers) {
+                subscriber.offer(SseEmitter.event().comment("heartbeat"));
+            }
+        }
+    }
+
+    /**
+     * Completes every open stream on shutdown so clients reconnect to another replica.
+     */
+    @PreDestroy
+    public void shutdown() {
+        subscribers.values().forEach((userSubscribers) -> userSubscribers.forEach((subscriber) -> subscriber.emitter.complete()));
+        senders.shutdown();
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.userId, (id, userSubscribers) -> {
+            userSubscribers.remove(subscriber);
+            return userSubscribers.isEmpty() ? null : userSubscribers;
+        });
+    }
+
+    /**
+     * A single SSE connection with its bounded queue of pending events.
+     */
+    private final class Subscriber {
+        private final UUID userId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> queue;
+        private final AtomicBoolean draining = new AtomicBoolean(false);
+
+        private Subscriber(UUID userId, SseEmitter emitter, BlockingQueue<SseEmitter.SseEventBuilder> queue) {
+            this.userId = userId;
+            this.emitter = emitter;
+            this.queue = queue;
+        }
+
+        /**
+         * Queues an event without blocking the publisher, disconnecting the subscriber if it cannot keep up.
+         */
+        private void offer(SseEmitter.SseEventBuilder event) {
+            if (!queue.offer(event)) {
+                log.debug("Disconnecting slow task stream subscriber of user {}", userId);
+                remove(this);
+                emitter.complete();
+                return;
+            }
+
+            // Only one sender per subscriber at a time, so events keep their order
+            if (draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            do {
+                SseEmitter.SseEventBuilder event;
+                while ((event = queue.poll()) != null) {
+                    try {
+                        emitter.send(event);
+                    } catch (IOException | IllegalStateException e) {
+                        // The client went away or the emitter already completed
+                        remove(this);
+                        queue.clear();
+                        return;
+                    }
+                }
+                draining.set(false);
+            } while (!queue.isEmpty() && draining.compareAndSet(false, true));
+        }
+    }
+}
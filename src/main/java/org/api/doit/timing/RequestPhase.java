@@ -0,0 +1,16 @@
+package org.api.doit.timing;
+
+/**
+ * The phases a request's wall time is broken into.
+ * Phases are exclusive: lazy loads triggered while mapping DTOs count as QUERY and CONNECTION_ACQUIRE,
+ * not MAPPING, and the queries of the principal load are not part of PRINCIPAL_LOAD. Time outside
+ * every phase, such as controller and filter code, is left unattributed.
+ */
+public enum RequestPhase {
+    JWT_VERIFY,
+    PRINCIPAL_LOAD,
+    CONNECTION_ACQUIRE,
+    QUERY,
+    MAPPING,
+    SERIALIZATION
+}
@@ -0,0 +1,57 @@
+package org.api.doit.timing;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Filter that times every request and captures those slower than the threshold, with their
+ * phase breakdown and SQL, into the SlowRequestRing. Streaming requests are never captured.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1) // Right after the SQL sampling filter, before security runs
+public class RequestTimingFilter extends OncePerRequestFilter {
+
+    private final SlowRequestRing slowRequestRing;
+    private final long slowThresholdNanos;
+
+    /**
+     * Constructor for dependency injection.
+     *
+     * @param slowRequestRing Ring buffer receiving the slow requests.
+     * @param slowThresholdMs Duration above which a request is captured.
+     */
+    public RequestTimingFilter(SlowRequestRing slowRequestRing,
+                               @Value("${app.timing.slow-threshold-ms}") long slowThresholdMs) {
+        this.slowRequestRing = slowRequestRing;
+        this.slowThresholdNanos = slowThresholdMs * 1_000_000;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        RequestTimings timings = RequestTimings.begin();
+        long started = System.nanoTime();
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            long total = System.nanoTime() - started;
+
+            // An SSE stream is still open when the chain returns; its duration says nothing about latency
+            if (total >= slowThresholdNanos && !request.isAsyncStarted()) {
+                slowRequestRing.add(timings.snapshot(request.getMethod(), request.getRequestURI(), response.getStatus(), total));
+            }
+            RequestTimings.end();
+        }
+    }
+}
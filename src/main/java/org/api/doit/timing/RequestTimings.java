@@ -0,0 +1,158 @@
+package org.api.doit.timing;
+
+import org.api.doit.dto.SlowRequestResponse;
+import org.api.doit.dto.SlowStatementResponse;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-request accumulator of phase durations and executed SQL.
+ * One instance per thread is allocated once and reset by every request served on that thread,
+ * so recording a phase costs two clock reads and a few array updates. Outside a request
+ * (scheduled jobs, startup) nothing is recorded.
+ * Phases are exclusive: the time of phases and statements recorded between a start() and its record()
+ * is subtracted from the enclosing phase, so the phases of a request never add up to more than its total.
+ * This requires start() and record() to be paired and nested, which callers ensure with try/finally.
+ */
+public final class RequestTimings {
+
+    /** Returned by {@link #start()} outside a request; {@link #record} ignores it. */
+    public static final long NOT_TIMED = Long.MIN_VALUE;
+
+    private static final RequestPhase[] PHASES = RequestPhase.values();
+    private static final int MAX_STATEMENTS = 32;
+    private static final int MAX_DEPTH = 8; // Deeper phases are recorded inclusively
+    private static final ThreadLocal<RequestTimings> TIMINGS = ThreadLocal.withInitial(RequestTimings::new);
+
+    private final long[] phaseNanos = new long[PHASES.length];
+    private final String[] statements = new String[MAX_STATEMENTS];
+    private final long[] statementNanos = new long[MAX_STATEMENTS];
+    private int statementCount;
+    private int droppedStatements;
+    private final long[] attributedAtStart = new long[MAX_DEPTH]; // attributedNanos when each open phase started
+    private int depth;
+    private long attributedNanos; // Time recorded so far in any phase, enclosing phases subtract what was added meanwhile
+    private boolean active;
+
+    private RequestTimings() {}
+
+    /**
+     * Starts timing a phase.
+     *
+     * @return the start time to pass to {@link #record}, or NOT_TIMED outside a request
+     */
+    public static long start() {
+        RequestTimings timings = TIMINGS.get();
+        if (!timings.active) {
+            return NOT_TIMED;
+        }
+
+        if (timings.depth < MAX_DEPTH) {
+            timings.attributedAtStart[timings.depth] = timings.attributedNanos;
+        }
+        timings.depth++;
+        return System.nanoTime();
+    }
+
+    /**
+     * Adds the time elapsed since start to a phase of the current request,
+     * less the time recorded by the phases and statements nested in it.
+     *
+     * @param phase the phase
+     * @param startedNanos the value returned by {@link #start()}
+     */
+    public static void record(RequestPhase phase, long startedNanos) {
+        if (startedNanos == NOT_TIMED) {
+            return;
+        }
+
+        RequestTimings timings = TIMINGS.get();
+        if (!timings.active || timings.depth == 0) {
+            return;
+        }
+
+        long elapsed = System.nanoTime() - startedNanos;
+        timings.depth--;
+        long nested = timings.depth < MAX_DEPTH ? timings.attributedNanos - timings.attributedAtStart[timings.depth] : 0;
+
+        long exclusive = Math.max(0, elapsed - nested);
+
+        timings.phaseNanos[phase.ordinal()] += exclusive;
+        timings.attributedNanos += exclusive; // With the nested time already added, the whole span counts for an enclosing phase
+    }
+
+    /**
+     * Records a statement of the current request; its time is added to the QUERY phase.
+     *
+     * @param sql the SQL text, kept by reference and only copied if the request turns out slow
+     * @param durationNanos the execution time
+     */
+    public static void recordStatement(String sql, long durationNanos) {
+        RequestTimings timings = TIMINGS.get();
+        if (!timings.active) {
+            return;
+        }
+
+        timings.phaseNanos[RequestPhase.QUERY.ordinal()] += durationNanos;
+        timings.attributedNanos += durationNanos;
+        if (timings.statementCount < MAX_STATEMENTS) {
+            timings.statements[timings.statementCount] = sql;
+            timings.statementNanos[timings.statementCount] = durationNanos;
+            timings.statementCount++;
+        } else {
+            timings.droppedStatements++;
+        }
+    }
+
+    /**
+     * Resets the current thread's timings for a new request.
+     *
+     * @return the timings of the request
+     */
+    static RequestTimings begin() {
+        RequestTimings timings = TIMINGS.get();
+        Arrays.fill(timings.phaseNanos, 0);
+        timings.statementCount = 0;
+        timings.droppedStatements = 0;
+        timings.depth = 0;
+        timings.attributedNanos = 0;
+        timings.active = true;
+        return timings;
+    }
+
+    /**
+     * Stops recording on the current thread once the request is done.
+     */
+    static void end() {
+        RequestTimings timings = TIMINGS.get();
+        timings.active = false;
+        Arrays.fill(timings.statements, 0, timings.statementCount, null); // Releases the SQL strings
+        timings.statementCount = 0;
+    }
+
+    /**
+     * Copies the timings into an immutable description of a slow request.
+     */
+    SlowRequestResponse snapshot(String method, String path, int status, long totalNanos) {
+        Map<String, Double> phases = new LinkedHashMap<>();
+        for (RequestPhase phase : PHASES) {
+            phases.put(phase.name(), toMs(phaseNanos[phase.ordinal()]));
+        }
+
+        List<SlowStatementResponse> executed = new ArrayList<>(statementCount);
+        for (int i = 0; i < statementCount; i++) {
+            executed.add(new SlowStatementResponse(statements[i], toMs(statementNanos[i])));
+        }
+
+        return new SlowRequestResponse(Instant.now(), method, path, status, toMs(totalNanos), phases, executed, droppedStatements);
+    }
+
+    private static double toMs(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,67 @@
+package org.api.doit.timing;
+
+import org.api.doit.dto.SlowRequestResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Lock-free ring buffer keeping the most recent slow requests.
+ * Writers claim a slot with a single atomic increment and overwrite the oldest entry,
+ * so recording a slow request never blocks a request thread.
+ */
+@Component
+public class SlowRequestRing {
+
+    private final AtomicReferenceArray<Entry> slots;
+    private final AtomicLong sequence = new AtomicLong();
+    private final int mask;
+
+    /**
+     * Creates the ring.
+     *
+     * @param capacity the number of requests kept, rounded up to a power of two
+     */
+    public SlowRequestRing(@Value("${app.timing.slow-request-capacity}") int capacity) {
+        int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * Records a slow request, replacing the oldest one once the ring is full.
+     *
+     * @param request the slow request
+     */
+    public void add(SlowRequestResponse request) {
+        long claimed = sequence.getAndIncrement();
+        slots.set((int) (claimed & mask), new Entry(claimed, request));
+    }
+
+    /**
+     * Returns the recorded slow requests.
+     *
+     * @return the requests, most recent first
+     */
+    public List<SlowRequestResponse> snapshot() {
+        long next = sequence.get();
+        List<SlowRequestResponse> requests = new ArrayList<>();
+
+        for (long claimed = next - 1; claimed >= 0 && claimed >= next - slots.length(); claimed--) {
+            Entry entry = slots.get((int) (claimed & mask));
+
+            // Skips slots not written yet or already overwritten by a newer request
+            if (entry != null && entry.sequence() == claimed) {
+                requests.add(entry.request());
+            }
+        }
+        return requests;
+    }
+
+    private record Entry(long sequence, SlowRequestResponse request) {
+    }
+}
@@ -0,0 +1,31 @@
+package org.api.doit.timing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * Jackson converter that adds the time spent writing response bodies to the SERIALIZATION phase.
+ * Declared as a bean, it replaces the converter Spring Boot would otherwise register.
+ */
+public class TimedJacksonHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    public TimedJacksonHttpMessageConverter(ObjectMapper objectMapper) {
+        super(objectMapper);
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        long started = RequestTimings.start();
+        try {
+            super.writeInternal(object, type, outputMessage);
+        } finally {
+            RequestTimings.record(RequestPhase.SERIALIZATION, started);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package org.api.doit.warmup;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.api.doit.dto.TaskResponse;
+import org.api.doit.entity.Task;
+import org.api.doit.entity.User;
+import org.api.doit.jwt.JwtService;
+import org.api.doit.repository.TaskRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Exercises the hot request paths before the application reports ready, so the JIT has compiled
+ * them and Hibernate has cached its query plans by the time real traffic arrives.
+ * Spring Boot only switches readiness to ACCEPTING_TRAFFIC after every ApplicationRunner has
+ * returned, so readiness is gated on this warm-up without any extra wiring.
+ * Database work runs against synthetic rows in a transaction that is always rolled back.
+ */
+@Component
+@ConditionalOnProperty(name = "app.warmup.enabled", havingValue = "true")
+public class WarmupRunner implements ApplicationRunner {
+    private static final Logger log = LoggerFactory.getLogger(WarmupRunner.class);
+
+    private static final String PASSWORD = "warmup-password";
+
+    private final JwtService jwtService;
+    private final PasswordEncoder passwordEncoder;
+    private final ObjectMapper objectMapper;
+    private final TaskRepository taskRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.warmup.iterations}")
+    private int iterations;
+
+    @Value("${app.warmup.password-iterations}")
+    private int passwordIterations;
+
+    /**
+     * Constructor for dependency injection.
+     *
+     * @param jwtService Service whose token generation and parsing are warmed up.
+     * @param passwordEncoder Encoder whose hash verification is warmed up.
+     * @param objectMapper Mapper whose TaskResponse serializers are warmed up.
+     * @param taskRepository Repository whose derived queries are warmed up.
+     * @param entityManager EntityManager used to persist the synthetic rows.
+     * @param transactionTemplate Runs each database round in a rolled-back transaction.
+     */
+    public WarmupRunner(final JwtService jwtService,
+                        final PasswordEncoder passwordEncoder,
+                        final ObjectMapper objectMapper,
+                        final TaskRepository taskRepository,
+                        final EntityManager entityManager,
+                        final TransactionTemplate transactionTemplate) {
+        this.jwtService = jwtService;
+        this.passwordEncoder = passwordEncoder;
+        this.objectMapper = objectMapper;
+        this.taskRepository = taskRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * Runs the warm-up and logs how long it took and how much faster the last round was than the first.
+     *
+     * @param args the application arguments, unused
+     */
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        long started = System.nanoTime();
+
+        // bcrypt is deliberately slow, so it gets its own, much smaller, iteration count
+        String passwordHash = passwordEncoder.encode(PASSWORD);
+        for (int i = 0; i < passwordIterations; i++) {
+            passwordEncoder.matches(PASSWORD, passwordHash);
+        }
+
+        long firstRoundNanos = 0;
+        long lastRoundNanos = 0;
+        for (int i = 0; i < iterations; i++) {
+            long roundStarted = System.nanoTime();
+            runRound(passwordHash);
+            lastRoundNanos = System.nanoTime() - roundStarted;
+
+            if (i == 0) {
+                firstRoundNanos = lastRoundNanos;
+            }
+        }
+
+        log.info("Warm-up finished in {} ms: {} rounds, first round {} us, last round {} us",
+                (System.nanoTime() - started) / 1_000_000,
+                iterations,
+                firstRoundNanos / 1_000,
+                lastRoundNanos / 1_000);
+    }
+
+    /**
+     * Runs one pass over the JWT, serialization and repository paths of a typical request.
+     */
+    private void runRound(String passwordHash) throws JsonProcessingException {
+        UUID userId = UUID.randomUUID();
+
+        String token = jwtService.generateToken("warmup", userId);
+        jwtService.parseClaims(token).get("userId", String.class);
+
+        TaskResponse sample = new TaskResponse(userId, "Warm-up task", "Synthetic task used to warm up serializers", false, LocalDateTime.now(), "V", null, null, List.of("warmup"), 0);
+        objectMapper.writeValueAsBytes(List.of(sample, sample, sample));
+
+        transactionTemplate.executeWithoutResult((status) -> {
+            // Nothing written here may ever become visible
+            status.setRollbackOnly();
+
+            User user = new User("warmup-" + userId, passwordHash);
+            entityManager.persist(user);
+            Task task = new Task("Warm-up task", "Synthetic task", user);
+            entityManager.persist(task);
+            entityManager.flush();
+
+            taskRepository.findByUserIdOrderByPositionAscCreatedAtAsc(user.getId()).forEach(TaskResponse::from);
+            taskRepository.findByUserIdAndCompletedOrderByPositionAscCreatedAtAsc(user.getId(), false);
+            taskRepository.findByIdAndUserId(task.getId(), user.getId());
+            taskRepository.countByUserIdAndCompleted(user.getId(), true);
+        });
+    }
+}
@@ -0,0 +1,97 @@
+package org.api.doit.jwt;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenDenylistTests {
+    private static final long BUCKET_MS = 60_000;
+    private static final int RING_SIZE = (int) (JwtService.EXPIRATION_TIME / BUCKET_MS) + 2;
+
+    @Test
+    void revokedTokensAreRejectedUntilTheirBucketIsReused() {
+        TokenDenylist denylist = new TokenDenylist(BUCKET_MS, 1024);
+        long expiresAt = System.currentTimeMillis() + JwtService.EXPIRATION_TIME / 2;
+
+        denylist.revoke("revoked", expiresAt);
+
+        assertTrue(denylist.isRevoked("revoked", expiresAt));
+        assertFalse(denylist.isRevoked("other", expiresAt));
+        assertFalse(denylist.isRevoked("revoked", expiresAt + RING_SIZE * BUCKET_MS)); // Same slot, later bucket
+
+        // A token expiring a whole ring later takes the slot over, by which time the first one has expired
+        denylist.revoke("later", expiresAt + RING_SIZE * BUCKET_MS);
+        assertTrue(denylist.isRevoked("later", expiresAt + RING_SIZE * BUCKET_MS));
+        assertFalse(denylist.isRevoked("revoked", expiresAt));
+    }
+
+    @Test
+    void alreadyExpiredTokensAreNotRecorded() {
+        TokenDenylist denylist = new TokenDenylist(BUCKET_MS, 1024);
+        long expiredAt = System.currentTimeMillis() - 1;
+
+        denylist.revoke("expired", expiredAt);
+
+        assertFalse(denylist.isRevoked("expired", expiredAt));
+    }
+
+    @Test
+    void expiredBucketsAreDiscarded() throws InterruptedException {
+        TokenDenylist denylist = new TokenDenylist(10, 1024);
+        long expiresAt = System.currentTimeMillis() + 20;
+
+        denylist.revoke("short-lived", expiresAt);
+        assertTrue(denylist.isRevoked("short-lived", expiresAt));
+
+        Thread.sleep(50);
+        denylist.discardExpired();
+
+        assertFalse(denylist.isRevoked("short-lived", expiresAt));
+    }
+
+    @Test
+    void bloomFilterHitsAreConfirmedByTheExactSet() {
+        // The smallest filter, so most lookups of tokens that were never revoked pass the Bloom filter
+        TokenDenylist denylist = new TokenDenylist(BUCKET_MS, 64);
+        long expiresAt = System.currentTimeMillis() + JwtService.EXPIRATION_TIME / 2;
+
+        for (int i = 0; i < 1000; i++) {
+            denylist.revoke("revoked-" + i, expiresAt);
+        }
+
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(denylist.isRevoked("revoked-" + i, expiresAt));
+            assertFalse(denylist.isRevoked("valid-" + i, expiresAt));
+        }
+    }
+
+    @Test
+    void revokingAUserRejectsTokensIssuedUpToItsSecond() {
+        TokenDenylist denylist = new TokenDenylist(BUCKET_MS, 1024);
+        UUID userId = UUID.randomUUID();
+        long issuedBefore = (System.currentTimeMillis() / 1000 - 1) * 1000;
+
+        denylist.revokeUser(userId);
+        long issuedAfter = (System.currentTimeMillis() / 1000 + 1) * 1000;
+
+        assertTrue(denylist.isUserRevoked(userId, issuedBefore));
+        assertFalse(denylist.isUserRevoked(userId, issuedAfter));
+        assertFalse(denylist.isUserRevoked(UUID.randomUUID(), issuedBefore));
+    }
+
+    @Test
+    void aTokenIssuedInTheSecondOfTheRevocationIsRejected() {
+        TokenDenylist denylist = new TokenDenylist(BUCKET_MS, 1024);
+        UUID userId = UUID.randomUUID();
+        // What a token issued just before the revocation carries, iat being truncated to the second,
+        // and so does one issued right after it within the same second: at most a second of false revocation
+        long issuedAt = System.currentTimeMillis() / 1000 * 1000;
+
+        denylist.revokeUser(userId);
+
+        assertTrue(denylist.isUserRevoked(userId, issuedAt));
+    }
+}
@@ -0,0 +1,61 @@
+package org.api.doit.label;
+
+import org.api.doit.dto.LabelMatch;
+import org.api.doit.dto.TaskResponse;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class UserLabelIndexTests {
+
+    @Test
+    void filterMatchesAllOrAnyLabelAndTheCompletionStatus() {
+        TaskResponse both = task(UUID.randomUUID(), "a", false, 0, "home", "work");
+        TaskResponse home = task(UUID.randomUUID(), "b", true, 0, "home");
+        TaskResponse work = task(UUID.randomUUID(), "c", false, 0, "work");
+        UserLabelIndex index = new UserLabelIndex(List.of(work, home, both));
+
+        assertEquals(List.of(both), index.filter(Set.of("home", "work"), LabelMatch.ALL, null));
+        assertEquals(List.of(both, home, work), index.filter(Set.of("home", "work"), LabelMatch.ANY, null));
+        assertEquals(List.of(home), index.filter(Set.of("home"), LabelMatch.ANY, true));
+        assertEquals(List.of(), index.filter(Set.of("home", "garden"), LabelMatch.ALL, null));
+    }
+
+    @Test
+    void olderSnapshotsDeliveredLateAreIgnored() {
+        UUID id = UUID.randomUUID();
+        UserLabelIndex index = new UserLabelIndex(List.of(task(id, "a", false, 0, "home")));
+
+        TaskResponse newer = task(id, "a", true, 2, "work");
+        index.upsert(newer);
+        index.upsert(task(id, "a", false, 1, "home"));
+
+        assertEquals(List.of(newer), index.filter(Set.of("work"), LabelMatch.ALL, true));
+        assertEquals(List.of(), index.filter(Set.of("home"), LabelMatch.ALL, null));
+    }
+
+    @Test
+    void removedTasksStayRemovedWhateverUpdateArrivesLate() {
+        UUID id = UUID.randomUUID();
+        UserLabelIndex index = new UserLabelIndex(List.of(task(id, "a", false, 0, "home")));
+
+        index.remove(id);
+        index.upsert(task(id, "a", true, 5, "home"));
+
+        // A removal delivered before the task's creation wins too
+        UUID unseen = UUID.randomUUID();
+        index.remove(unseen);
+        index.upsert(task(unseen, "b", false, 0, "home"));
+
+        assertEquals(List.of(), index.filter(Set.of("home"), LabelMatch.ANY, null));
+    }
+
+    private static TaskResponse task(UUID id, String position, boolean completed, long version, String... labels) {
+        return new TaskResponse(id, "Task", null, completed, LocalDateTime.now(), position, null, null, List.of(labels), version);
+    }
+}
@@ -0,0 +1,152 @@
+package org.api.doit.reminder;
+
+import org.api.doit.entity.Task;
+import org.api.doit.entity.User;
+import org.api.doit.event.TaskChangeType;
+import org.api.doit.event.TaskChangedEvent;
+import org.api.doit.repository.SchedulerLeaseRepository;
+import org.api.doit.repository.TaskRepository;
+import org.api.doit.service.TaskWriter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Pages through more reminders sharing one timestamp than fit in a batch, against an in-memory
+ * stand-in of the reminder query, and checks every one of them fires exactly once and is announced as an update.
+ */
+class ReminderSchedulerTests {
+    private static final int BATCH_SIZE = 10;
+
+    private final TaskRepository taskRepository = mock(TaskRepository.class);
+    private final SchedulerLeaseRepository schedulerLeaseRepository = mock(SchedulerLeaseRepository.class);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+    private final TaskWriter taskWriter = mock(TaskWriter.class);
+    private final List<UUID> delivered = new ArrayList<>();
+    private final List<UUID> updated = new ArrayList<>();
+    private final List<Task> reminders = new ArrayList<>();
+
+    private ReminderScheduler scheduler;
+
+    @BeforeEach
+    void createScheduler() {
+        when(transactionTemplate.execute(any())).thenAnswer((invocation) ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(schedulerLeaseRepository.tryAcquire(anyString(), anyString(), any(), any())).thenReturn(1);
+        when(taskRepository.findUpcomingReminders(any(), any(), any(), anyInt())).thenAnswer((invocation) ->
+                page(invocation.getArgument(0), invocation.getArgument(1), invocation.getArgument(2), invocation.getArgument(3)));
+        when(taskRepository.claimReminders(any(), any(), any(), anyLong())).thenAnswer((invocation) ->
+                claim(invocation.getArgument(0), invocation.getArgument(1)));
+        when(taskWriter.nextChangeSeqs(any())).thenAnswer((invocation) -> {
+            Map<UUID, Long> changeSeqs = new HashMap<>();
+            invocation.<Collection<UUID>>getArgument(0).forEach((userId) -> changeSeqs.put(userId, 1L));
+            return changeSeqs;
+        });
+
+        ApplicationEventPublisher eventPublisher = (event) -> {
+            TaskChangedEvent change = (TaskChangedEvent) event;
+            assertEquals(TaskChangeType.UPDATED, change.type());
+            updated.add(change.taskId());
+        };
+        ReminderSink sink = (userId, reminder) -> delivered.add(reminder.taskId());
+        scheduler = new ReminderScheduler(taskRepository, schedulerLeaseRepository, transactionTemplate, taskWriter, eventPublisher, sink);
+        ReflectionTestUtils.setField(scheduler, "tickMs", 1000L);
+        ReflectionTestUtils.setField(scheduler, "windowMs", 300_000L);
+        ReflectionTestUtils.setField(scheduler, "batchSize", BATCH_SIZE);
+        ReflectionTestUtils.setField(scheduler, "catchUpMs", 3_600_000L);
+        ReflectionTestUtils.setField(scheduler, "leaseMs", 90_000L);
+        ReflectionTestUtils.setField(scheduler, "refillIntervalMs", 30_000L);
+    }
+
+    @Test
+    void remindersSharingATimestampBeyondABatchAreAllFired() {
+        LocalDateTime remindAt = LocalDateTime.now().minusMinutes(10).withNano(0);
+        Set<UUID> expected = new HashSet<>();
+        for (int i = 0; i < BATCH_SIZE * 3 + 1; i++) {
+            expected.add(addReminder(remindAt));
+        }
+        expected.add(addReminder(remindAt.plusSeconds(1)));
+
+        scheduler.refill();
+
+        assertEquals(expected.size(), delivered.size());
+        assertEquals(expected, new HashSet<>(delivered));
+        assertEquals(delivered, updated);
+    }
+
+    @Test
+    void exactlyOneBatchOfTiesIsFollowedByAnEmptyPage() {
+        LocalDateTime remindAt = LocalDateTime.now().minusMinutes(10).withNano(0);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            addReminder(remindAt);
+        }
+
+        scheduler.refill();
+
+        assertEquals(BATCH_SIZE, new HashSet<>(delivered).size());
+        assertEquals(BATCH_SIZE, delivered.size());
+    }
+
+    private UUID addReminder(LocalDateTime remindAt) {
+        UUID id = UUID.randomUUID();
+        User user = mock(User.class);
+        when(user.getId()).thenReturn(UUID.randomUUID());
+
+        Task task = mock(Task.class);
+        when(task.getId()).thenReturn(id);
+        when(task.getUser()).thenReturn(user);
+        when(task.getTitle()).thenReturn("Reminder " + id);
+        when(task.getRemindAt()).thenReturn(remindAt);
+        reminders.add(task);
+        return id;
+    }
+
+    /**
+     * Mirrors the claiming update, which only matches the given user's tasks.
+     */
+    private List<Task> claim(Collection<UUID> ids, UUID userId) {
+        return reminders.stream()
+                .filter((task) -> ids.contains(task.getId()) && task.getUser().getId().equals(userId))
+                .toList();
+    }
+
+    /**
+     * Mirrors the keyset query, comparing UUIDs by their bytes as Postgres does.
+     * Fired reminders are not filtered out, so only the keyset keeps a reminder from being read twice.
+     */
+    private List<Task> page(LocalDateTime fromAt, UUID fromId, LocalDateTime to, int limit) {
+        Comparator<Task> order = Comparator.comparing(Task::getRemindAt)
+                .thenComparing((task) -> task.getId().toString());
+        return reminders.stream()
+                .filter((task) -> task.getRemindAt().isBefore(to))
+                .filter((task) -> {
+                    int byTime = task.getRemindAt().compareTo(fromAt);
+                    return byTime > 0 || byTime == 0 && task.getId().toString().compareTo(fromId.toString()) > 0;
+                })
+                .sorted(order)
+                .limit(limit)
+                .toList();
+    }
+}
@@ -0,0 +1,142 @@
+package org.api.doit.search;
+
+import org.api.doit.dto.TaskResponse;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UserTaskIndexTests {
+
+    @Test
+    void tokenizeSplitsOnNonWordCharactersAndLowercases() {
+        assertEquals(List.of("buy", "milk", "2", "\u00e9clairs"), List.copyOf(UserTaskIndex.tokenize("Buy MILK, 2 \u00c9CLAIRS!")));
+        assertEquals(List.of("a", "b"), List.copyOf(UserTaskIndex.tokenize("a b a")));
+        assertTrue(UserTaskIndex.tokenize(null).isEmpty());
+        assertTrue(UserTaskIndex.tokenize(" ,.;").isEmpty());
+    }
+
+    @Test
+    void tokensMatchAsPrefixesOfTerms() {
+        TaskResponse groceries = task("Groceries", "milk and bread");
+        TaskResponse group = task("Group meeting", null);
+        TaskResponse gym = task("Gym", null);
+        UserTaskIndex index = new UserTaskIndex(List.of(groceries, group, gym));
+
+        assertEquals(List.of(groceries, group), index.search(Set.of("gro"), 10));
+        assertEquals(List.of(groceries), index.search(Set.of("gro", "bre"), 10));
+        assertEquals(List.of(), index.search(Set.of("gro", "gym"), 10));
+        assertEquals(List.of(), index.search(Set.of("zzz"), 10));
+        assertEquals(List.of(), index.search(Set.of(), 10));
+    }
+
+    @Test
+    void prefixRangeStopsAtTermsThatNoLongerStartWithTheToken() {
+        TaskResponse ab = task("ab", null);
+        TaskResponse abz = task("abz", null);
+        TaskResponse ac = task("ac", null);
+        UserTaskIndex index = new UserTaskIndex(List.of(ab, abz, ac));
+
+        assertEquals(List.of(ab, abz), index.search(Set.of("ab"), 10));
+    }
+
+    @Test
+    void searchReturnsAtMostTheLimitInIndexingOrder() {
+        List<TaskResponse> tasks = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            tasks.add(task("Report " + i, null));
+        }
+        UserTaskIndex index = new UserTaskIndex(tasks);
+
+        assertEquals(tasks.subList(0, 3), index.search(Set.of("report"), 3));
+    }
+
+    @Test
+    void upsertReplacesTheTermsOfAChangedTask() {
+        TaskResponse original = task("Call plumber", null);
+        UserTaskIndex index = new UserTaskIndex(List.of(original));
+
+        TaskResponse renamed = new TaskResponse(original.id(), "Call electrician", null, false, original.createdAt(),
+                null, null, null, List.of(), 1);
+        index.upsert(renamed);
+
+        assertEquals(List.of(), index.search(Set.of("plumber"), 10));
+        assertEquals(List.of(renamed), index.search(Set.of("electrician"), 10));
+        assertEquals(List.of(renamed), index.search(Set.of("call"), 10));
+    }
+
+    @Test
+    void removedTasksAreSkipped() {
+        TaskResponse kept = task("Keep", "shared");
+        TaskResponse removed = task("Remove", "shared");
+        UserTaskIndex index = new UserTaskIndex(List.of(kept, removed));
+
+        index.remove(removed.id());
+        index.remove(UUID.randomUUID());
+
+        assertEquals(List.of(kept), index.search(Set.of("shared"), 10));
+    }
+
+    @Test
+    void olderSnapshotsDeliveredLateAreIgnored() {
+        TaskResponse original = task("Call plumber", null);
+        UserTaskIndex index = new UserTaskIndex(List.of(original));
+
+        TaskResponse newer = new TaskResponse(original.id(), "Call electrician", null, true, original.createdAt(), null, null, null, List.of(), 2);
+        TaskResponse older = new TaskResponse(original.id(), "Call roofer", null, false, original.createdAt(), null, null, null, List.of(), 1);
+        index.upsert(newer);
+        index.upsert(older);
+
+        assertEquals(List.of(newer), index.search(Set.of("call"), 10));
+        assertEquals(List.of(), index.search(Set.of("roofer"), 10));
+    }
+
+    @Test
+    void removedTasksStayRemovedWhateverUpdateArrivesLate() {
+        TaskResponse task = task("Removed", null);
+        UserTaskIndex index = new UserTaskIndex(List.of(task));
+
+        index.remove(task.id());
+        index.upsert(new TaskResponse(task.id(), "Removed", null, true, task.createdAt(), null, null, null, List.of(), 5));
+
+        // A removal delivered before the task's creation wins too
+        UUID unseen = UUID.randomUUID();
+        index.remove(unseen);
+        index.upsert(new TaskResponse(unseen, "Removed early", null, false, task.createdAt(), null, null, null, List.of(), 0));
+
+        assertEquals(List.of(), index.search(Set.of("removed"), 10));
+    }
+
+    @Test
+    void isFragmentedOnceMostDocumentsAreDeleted() {
+        List<TaskResponse> tasks = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            tasks.add(task("Task " + i, null));
+        }
+        UserTaskIndex index = new UserTaskIndex(tasks);
+
+        // Exactly half of the documents is not fragmented yet, one more deletion is
+        for (int i = 0; i < 1500; i++) {
+            index.remove(tasks.get(i).id());
+        }
+        assertFalse(index.isFragmented());
+
+        index.remove(tasks.get(1500).id());
+        assertTrue(index.isFragmented());
+
+        UserTaskIndex small = new UserTaskIndex(tasks.subList(0, 100));
+        tasks.subList(0, 100).forEach((task) -> small.remove(task.id()));
+        assertFalse(small.isFragmented());
+    }
+
+    private static TaskResponse task(String title, String description) {
+        return new TaskResponse(UUID.randomUUID(), title, description, false, LocalDateTime.now(), null, null, null, List.of(), 0);
+    }
+}
@@ -0,0 +1,76 @@
+package org.api.doit.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Randomized checks of the rank key invariants: every generated key sorts strictly between its neighbours,
+ * never ends with the lowest digit and grows by at most one character over the longer neighbour.
+ * Seeds are fixed, so a failure reproduces.
+ */
+class RankKeysTests {
+    private static final int INSERTS = 3000;
+
+    @ParameterizedTest
+    @ValueSource(longs = {1, 2, 3, 42, 1234567})
+    void randomInsertsKeepKeysOrderedAndShort(long seed) {
+        Random random = new Random(seed);
+        List<String> keys = new ArrayList<>();
+
+        for (int n = 0; n < INSERTS; n++) {
+            int at = random.nextInt(keys.size() + 1);
+            String lower = at == 0 ? null : keys.get(at - 1);
+            String upper = at == keys.size() ? null : keys.get(at);
+
+            String key = upper == null && random.nextBoolean() ? RankKeys.after(lower) : RankKeys.between(lower, upper);
+
+            assertTrue(lower == null || lower.compareTo(key) < 0, () -> key + " is not above " + lower);
+            assertTrue(upper == null || key.compareTo(upper) < 0, () -> key + " is not below " + upper);
+            assertFalse(key.endsWith("0"), () -> key + " ends with the lowest digit");
+
+            int longest = Math.max(lower == null ? 0 : lower.length(), upper == null ? 0 : upper.length());
+            assertTrue(key.length() <= Math.max(longest + 1, 6), () -> key + " grew more than a character between " + lower + " and " + upper);
+            keys.add(at, key);
+        }
+    }
+
+    @Test
+    void appendsKeepAFixedWidth() {
+        String last = null;
+        for (int i = 0; i < 100_000; i++) {
+            String key = RankKeys.after(last);
+            String previous = last;
+            assertTrue(previous == null || previous.compareTo(key) < 0, () -> key + " is not above " + previous);
+            assertTrue(key.length() <= 6, () -> key + " is longer than the append width");
+            last = key;
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2, 61, 62, 1000, 100_000})
+    void evenlySpacedKeysLeaveRoomBetweenThem(int count) {
+        List<String> keys = RankKeys.evenlySpaced(count);
+
+        for (int i = 1; i < keys.size(); i++) {
+            String lower = keys.get(i - 1);
+            String upper = keys.get(i);
+            String key = RankKeys.between(lower, upper);
+            assertTrue(lower.compareTo(key) < 0 && key.compareTo(upper) < 0, () -> key + " is not between " + lower + " and " + upper);
+        }
+    }
+
+    @Test
+    void boundsOutOfOrderAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> RankKeys.between("b", "a"));
+        assertThrows(IllegalArgumentException.class, () -> RankKeys.between("a", "a"));
+    }
+}
@@ -0,0 +1,210 @@
+package org.api.doit.service;
+
+import org.api.doit.dto.BatchOperationRequest;
+import org.api.doit.dto.BatchOperationType;
+import org.api.doit.dto.BatchResponse;
+import org.api.doit.dto.CreateTaskRequest;
+import org.api.doit.dto.TaskResponse;
+import org.api.doit.entity.User;
+import org.api.doit.repository.UserRepository;
+import org.api.doit.security.CustomUserDetails;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Toggles one task from many threads at once, through the single-task and the batch endpoints' services,
+ * and checks that no toggle is lost or rejected. Also reports how long each kind of toggle holds the user's row.
+ */
+@SpringBootTest
+@Testcontainers(disabledWithoutDocker = true)
+class TaskCompletionConcurrencyTests {
+    private static final Logger log = LoggerFactory.getLogger(TaskCompletionConcurrencyTests.class);
+    private static final int THREADS = 16;
+    private static final int TOGGLES_PER_THREAD = 25;
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:17-alpine");
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("app.jwt.secret", () -> "a-test-secret-long-enough-for-hmac-sha-256");
+        registry.add("app.warmup.enabled", () -> "false");
+    }
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskBatchService taskBatchService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private CustomUserDetails principal;
+
+    @BeforeEach
+    void createUser() {
+        User user = userRepository.save(new User("toggler-" + UUID.randomUUID(), "password"));
+        principal = new CustomUserDetails(user.getId(), user.getUsername(), user.getPassword(), List.of());
+    }
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void concurrentTogglesAreAllApplied() throws Exception {
+        UUID taskId = asUser(() -> taskService.createTask(new CreateTaskRequest("Toggled", null, null, null, null))).id();
+
+        runConcurrently(() -> {
+            for (int i = 0; i < TOGGLES_PER_THREAD; i++) {
+                taskService.toggleTaskCompleted(taskId);
+            }
+            return null;
+        });
+
+        TaskResponse task = asUser(() -> taskService.getTask(taskId));
+        int toggles = THREADS * TOGGLES_PER_THREAD;
+        assertEquals(toggles, task.version());
+        assertEquals(toggles % 2 == 1, task.completed());
+        assertEquals(task.completed() ? 1 : 0, asUser(() -> taskService.getTaskSummary()).completed());
+    }
+
+    @Test
+    void concurrentBatchTogglesAreNotRejected() throws Exception {
+        UUID taskId = asUser(() -> taskService.createTask(new CreateTaskRequest("Toggled", null, null, null, null))).id();
+        List<BatchOperationRequest> toggleTwice = List.of(
+                new BatchOperationRequest(BatchOperationType.TOGGLE, taskId, null),
+                new BatchOperationRequest(BatchOperationType.TOGGLE, taskId, null));
+
+        runConcurrently(() -> {
+            for (int i = 0; i < TOGGLES_PER_THREAD; i++) {
+                // A single toggle racing each batch, as a second device would
+                taskService.toggleTaskCompleted(taskId);
+                BatchResponse response = taskBatchService.executeBatch(toggleTwice);
+                response.results().forEach((result) -> assertEquals(200, result.status()));
+            }
+            return null;
+        });
+
+        // A batch writes its changes to a task in one update, so each batch bumps the version once
+        TaskResponse task = asUser(() -> taskService.getTask(taskId));
+        int toggles = THREADS * TOGGLES_PER_THREAD * 3;
+        assertEquals(THREADS * TOGGLES_PER_THREAD * 2, task.version());
+        assertEquals(toggles % 2 == 1, task.completed());
+    }
+
+    /**
+     * Every toggle locks the user's row first to take the change sequence, so toggles of one user run one at a time
+     * and the wall-clock time per toggle approaches how long each holds the row. Compares the single UPDATE of a toggle
+     * with the batch path, which reads the task, flips it on the entity and flushes: a read-modify-write.
+     * Only reported, as timings depend on the machine; run with -i to see them.
+     */
+    @Test
+    void reportsRowLockHoldOfAtomicAndReadModifyWriteToggles() throws Exception {
+        UUID taskId = asUser(() -> taskService.createTask(new CreateTaskRequest("Toggled", null, null, null, null))).id();
+        List<BatchOperationRequest> toggle = List.of(new BatchOperationRequest(BatchOperationType.TOGGLE, taskId, null));
+
+        // Warms both paths up, so the first measurement does not pay for class loading and JIT compilation
+        for (int i = 0; i < TOGGLES_PER_THREAD; i++) {
+            asUser(() -> taskService.toggleTaskCompleted(taskId));
+            asUser(() -> taskBatchService.executeBatch(toggle));
+        }
+
+        long atomicVersion = asUser(() -> taskService.getTask(taskId)).version();
+        measureToggles("Atomic UPDATE", () -> taskService.toggleTaskCompleted(taskId));
+        long readModifyWriteVersion = asUser(() -> taskService.getTask(taskId)).version();
+        measureToggles("Read-modify-write", () -> taskBatchService.executeBatch(toggle));
+
+        int toggles = THREADS * TOGGLES_PER_THREAD;
+        assertEquals(atomicVersion + toggles, readModifyWriteVersion);
+        assertEquals(readModifyWriteVersion + toggles, asUser(() -> taskService.getTask(taskId)).version());
+    }
+
+    /**
+     * Runs the toggle concurrently and logs the mean row lock hold, derived from the serialized wall-clock time,
+     * and the latency percentiles callers see, lock waits included.
+     */
+    private void measureToggles(String label, Callable<?> toggle) throws Exception {
+        long[] latencies = new long[THREADS * TOGGLES_PER_THREAD];
+        AtomicInteger next = new AtomicInteger();
+
+        long started = System.nanoTime();
+        runConcurrently(() -> {
+            for (int i = 0; i < TOGGLES_PER_THREAD; i++) {
+                long called = System.nanoTime();
+                toggle.call();
+                latencies[next.getAndIncrement()] = System.nanoTime() - called;
+            }
+            return null;
+        });
+        long elapsed = System.nanoTime() - started;
+
+        Arrays.sort(latencies);
+        log.info("{}: {} toggles in {} ms, mean row lock hold {} us, latency p50 {} us, p99 {} us", label, latencies.length,
+                elapsed / 1_000_000, elapsed / latencies.length / 1_000,
+                latencies[latencies.length / 2] / 1_000, latencies[latencies.length * 99 / 100] / 1_000);
+    }
+
+    /**
+     * Runs the work on every thread at once, as the test user, and rethrows the first failure.
+     */
+    private void runConcurrently(Callable<Void> work) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Void>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return asUser(work);
+                }));
+            }
+            start.countDown();
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private <T> T asUser(Callable<T> work) throws Exception {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+        try {
+            return work.call();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package org.api.doit.service;
+
+import org.api.doit.dto.CreateTaskRequest;
+import org.api.doit.dto.LabelMatch;
+import org.api.doit.dto.TaskResponse;
+import org.api.doit.entity.User;
+import org.api.doit.repository.UserRepository;
+import org.api.doit.security.CustomUserDetails;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * Rebalances a user's positions once the search and label indexes are built, and checks that both
+ * indexes serve the rewritten positions and versions afterwards.
+ */
+@SpringBootTest
+@Testcontainers(disabledWithoutDocker = true)
+class TaskPositionRebalancerTests {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:17-alpine");
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("app.jwt.secret", () -> "a-test-secret-long-enough-for-hmac-sha-256");
+        registry.add("app.warmup.enabled", () -> "false");
+    }
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskPositionRebalancer taskPositionRebalancer;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private UUID userId;
+
+    @BeforeEach
+    void signIn() {
+        User user = userRepository.save(new User("rebalanced-" + UUID.randomUUID(), "password"));
+        CustomUserDetails principal = new CustomUserDetails(user.getId(), user.getUsername(), user.getPassword(), List.of());
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+        userId = user.getId();
+    }
+
+    @AfterEach
+    void signOut() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void indexesReflectARebalance() {
+        List<TaskResponse> created = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            created.add(taskService.createTask(new CreateTaskRequest("Rebalanced " + i, null, null, null, List.of("work"))));
+        }
+
+        // Builds both indexes from the current positions
+        assertEquals(created.size(), taskService.searchTasks("rebalanced").size());
+        assertEquals(created.size(), taskService.getTasksByLabels(Set.of("work"), LabelMatch.ALL, null).size());
+
+        transactionTemplate.executeWithoutResult((status) -> taskPositionRebalancer.rebalance(userId));
+
+        List<TaskResponse> stored = created.stream().map((task) -> taskService.getTask(task.id())).toList();
+        assertNotEquals(created.stream().map(TaskResponse::position).toList(), stored.stream().map(TaskResponse::position).toList());
+
+        assertEquals(stored, sortedLike(stored, taskService.searchTasks("rebalanced")));
+        assertEquals(stored, sortedLike(stored, taskService.getTasksByLabels(Set.of("work"), LabelMatch.ALL, null)));
+    }
+
+    /**
+     * Orders index results like the stored tasks, so only their content is compared.
+     */
+    private static List<TaskResponse> sortedLike(List<TaskResponse> stored, List<TaskResponse> results) {
+        List<UUID> ids = stored.stream().map(TaskResponse::id).toList();
+        return results.stream().sorted((a, b) -> Integer.compare(ids.indexOf(a.id()), ids.indexOf(b.id()))).toList();
+    }
+}
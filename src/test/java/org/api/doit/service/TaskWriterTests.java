@@ -0,0 +1,177 @@
+package org.api.doit.service;
+
+import org.api.doit.dto.CreateTaskRequest;
+import org.api.doit.dto.TaskResponse;
+import org.api.doit.entity.User;
+import org.api.doit.repository.UserRepository;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Creates tasks of one and of many users in one transaction, and checks that the lookups before the inserts,
+ * run while the owners' rows are locked, take as many statements whatever the number of users.
+ * Also reports how long each kind of creation takes.
+ */
+@SpringBootTest
+@Testcontainers(disabledWithoutDocker = true)
+class TaskWriterTests {
+    private static final Logger log = LoggerFactory.getLogger(TaskWriterTests.class);
+    private static final int USERS = 20;
+    private static final int TASKS_PER_USER = 2;
+    private static final int ROUNDS = 50;
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:17-alpine");
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("app.jwt.secret", () -> "a-test-secret-long-enough-for-hmac-sha-256");
+        registry.add("app.warmup.enabled", () -> "false");
+    }
+
+    @Autowired
+    private TaskWriter taskWriter;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final List<UUID> userIds = new ArrayList<>();
+
+    @BeforeEach
+    void createUsers() {
+        for (int i = 0; i < USERS; i++) {
+            userIds.add(userRepository.save(new User("writer-" + UUID.randomUUID(), "password")).getId());
+        }
+        // The labels exist from then on, as they mostly do
+        create(userIds);
+    }
+
+    @Test
+    void lookupsBeforeTheInsertsDoNotGrowWithTheNumberOfUsers() {
+        List<String> oneUser = lookups(userIds.subList(0, 1));
+        List<String> allUsers = lookups(userIds);
+
+        assertEquals(oneUser.size(), allUsers.size(), () -> "One user: " + oneUser + ", " + USERS + " users: " + allUsers);
+    }
+
+    @Test
+    void tasksOfSeveralUsersGoToTheBottomOfTheirListsWithTheirLabels() {
+        List<TaskResponse> first = create(userIds);
+        List<TaskResponse> second = create(userIds);
+
+        for (int i = 0; i < first.size(); i++) {
+            assertTrue(first.get(i).position().compareTo(second.get(i).position()) < 0);
+            assertEquals(List.of("home", "work"), second.get(i).labels().stream().sorted().toList());
+        }
+    }
+
+    @Test
+    void reportsCreationTimeForOneAndForManyUsers() {
+        measureCreations("1 user", userIds.subList(0, 1));
+        measureCreations(USERS + " users", userIds);
+    }
+
+    /**
+     * Creates tasks of the users and returns the statements run before the first insert.
+     */
+    private List<String> lookups(List<UUID> owners) {
+        CountingStatementInspector.start();
+        try {
+            create(owners);
+            List<String> lookups = new ArrayList<>();
+            for (String sql : CountingStatementInspector.statements()) {
+                if (sql.stripLeading().regionMatches(true, 0, "insert", 0, "insert".length())) {
+                    break;
+                }
+                lookups.add(sql);
+            }
+            return lookups;
+        } finally {
+            CountingStatementInspector.stop();
+        }
+    }
+
+    private void measureCreations(String label, List<UUID> owners) {
+        long started = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            create(owners);
+        }
+        long elapsed = System.nanoTime() - started;
+        log.info("{}: {} transactions of {} tasks in {} ms, {} us each", label, ROUNDS, owners.size() * TASKS_PER_USER,
+                elapsed / 1_000_000, elapsed / ROUNDS / 1_000);
+    }
+
+    private List<TaskResponse> create(List<UUID> owners) {
+        List<TaskWriter.NewTask> newTasks = new ArrayList<>();
+        for (UUID userId : owners) {
+            for (int i = 0; i < TASKS_PER_USER; i++) {
+                newTasks.add(new TaskWriter.NewTask(userId, new CreateTaskRequest("Written " + i, null, null, null, List.of("Work", "home"))));
+            }
+        }
+        return transactionTemplate.execute((status) -> taskWriter.create(newTasks));
+    }
+
+    @TestConfiguration
+    static class StatementCounting {
+        @Bean
+        HibernatePropertiesCustomizer countingStatementInspector() {
+            return (properties) -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new CountingStatementInspector());
+        }
+    }
+
+    /**
+     * Records the statements the test thread prepares while counting, ignoring those of the background jobs.
+     */
+    static class CountingStatementInspector implements StatementInspector {
+        private static final ThreadLocal<List<String>> STATEMENTS = new ThreadLocal<>();
+
+        static void start() {
+            STATEMENTS.set(new ArrayList<>());
+        }
+
+        static List<String> statements() {
+            return STATEMENTS.get();
+        }
+
+        static void stop() {
+            STATEMENTS.remove();
+        }
+
+        @Override
+        public String inspect(String sql) {
+            List<String> statements = STATEMENTS.get();
+            if (statements != null) {
+                statements.add(sql);
+            }
+            return sql;
+        }
+    }
+}
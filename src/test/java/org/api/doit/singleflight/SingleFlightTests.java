@@ -0,0 +1,129 @@
+package org.api.doit.singleflight;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SingleFlightTests {
+    private static final int FOLLOWERS = 8;
+
+    private final SingleFlight<String, Object> singleFlight = new SingleFlight<>();
+
+    @Test
+    void concurrentCallsJoinTheRunningOne() throws InterruptedException {
+        AtomicInteger loads = new AtomicInteger();
+        Object result = new Object();
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Object> results = runWhileLeaderBlocks(release, () -> {
+            loads.incrementAndGet();
+            await(release);
+            return result;
+        });
+
+        assertEquals(1, loads.get());
+        assertEquals(FOLLOWERS + 1, results.size());
+        results.forEach((each) -> assertSame(result, each));
+    }
+
+    @Test
+    void followersGetTheLeadersException() throws InterruptedException {
+        IllegalStateException failure = new IllegalStateException("load failed");
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Object> results = runWhileLeaderBlocks(release, () -> {
+            await(release);
+            throw failure;
+        });
+
+        assertEquals(FOLLOWERS + 1, results.size());
+        results.forEach((each) -> assertSame(failure, each));
+    }
+
+    @Test
+    void theKeyIsReleasedOnceTheCallEnds() {
+        AtomicInteger loads = new AtomicInteger();
+
+        singleFlight.execute("key", loads::incrementAndGet);
+        singleFlight.execute("key", loads::incrementAndGet);
+        assertThrows(IllegalStateException.class, () -> singleFlight.execute("key", () -> {
+            throw new IllegalStateException();
+        }));
+        singleFlight.execute("key", loads::incrementAndGet);
+
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void differentKeysRunIndependently() {
+        // A call for another key made while the first one runs is not mistaken for a follower
+        assertEquals("ab", singleFlight.execute("a", () -> "a" + singleFlight.execute("b", () -> "b")));
+    }
+
+    /**
+     * Starts a leader running the loader, then followers with the same key once the leader is inside it,
+     * and releases the leader once every follower waits. Returns each caller's result or exception.
+     */
+    private List<Object> runWhileLeaderBlocks(CountDownLatch release, Supplier<Object> loader) throws InterruptedException {
+        CountDownLatch entered = new CountDownLatch(1);
+        List<Object> outcomes = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+
+        threads.add(call(() -> {
+            entered.countDown();
+            return loader.get();
+        }, outcomes));
+        entered.await();
+
+        for (int i = 0; i < FOLLOWERS; i++) {
+            threads.add(call(() -> {
+                throw new AssertionError("A follower ran the loader");
+            }, outcomes));
+        }
+
+        // Followers park in join() on the leader's future; one that ran the loader instead has ended
+        for (Thread follower : threads.subList(1, threads.size())) {
+            while (follower.getState() != Thread.State.WAITING && follower.getState() != Thread.State.TERMINATED) {
+                Thread.onSpinWait();
+            }
+        }
+        release.countDown();
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        return outcomes;
+    }
+
+    private Thread call(Supplier<Object> loader, List<Object> outcomes) {
+        return Thread.ofPlatform().start(() -> {
+            AtomicReference<Object> outcome = new AtomicReference<>();
+            try {
+                outcome.set(singleFlight.execute("key", loader));
+            } catch (RuntimeException e) {
+                outcome.set(e);
+            }
+            synchronized (outcomes) {
+                outcomes.add(outcome.get());
+            }
+        });
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}